@@ -0,0 +1,153 @@
+package com.fredhonorio.json_decoder;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.Tuple8;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import net.hamnaberg.json.Json;
+import net.hamnaberg.json.jackson.JacksonStreamingParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.fredhonorio.json_decoder.Decoders.Integer;
+import static com.fredhonorio.json_decoder.Decoders.String;
+import static com.fredhonorio.json_decoder.Decoders.*;
+
+/**
+ * The combinators, applied to an already parsed {@link net.hamnaberg.json.Json.JValue}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CombinatorBenchmark {
+
+    static final Decoder<Integer> FIELD = field("a", Integer);
+    static final Decoder<Integer> FIELD_MISSING = field("missing", Integer);
+    static final Decoder<Integer> AT = at(List.of("nested", "b", "c"), Integer);
+    static final Decoder<Integer> INDEX = index(50, Integer);
+    static final Decoder<List<Integer>> LIST = list(Integer);
+    static final Decoder<Map<String, Integer>> DICT = dict(Integer);
+    static final Decoder<String> ONE_OF_FIRST = oneOf(Integer.map(Object::toString), String, nullValue(""));
+    static final Decoder<String> ONE_OF_LAST = oneOf(String, Integer.map(Object::toString), nullValue(""));
+    static final Decoder<Option<Integer>> OPTION = option(field("missing", Integer));
+    static final Decoder<Option<Integer>> NULLABLE = field("nothing", nullable(Integer));
+    static final Decoder<Integer> AND_THEN = field("a", Integer).andThen(a -> field("b", Integer).map(b -> a + b));
+    static final Decoder<Integer> FILTER = field("a", Integer).filter(a -> a > 0, "not positive");
+    static final Decoder<Integer> MAP_TRY = field("s", String).mapTry(java.lang.Integer::parseInt);
+
+    static final Decoder<Tuple2<Integer, Integer>> MAP2 = Decoder.map2(
+        field("a", Integer),
+        field("b", Integer),
+        Tuple::of);
+
+    static final Decoder<Tuple8<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>> MAP8 = Decoder.map8(
+        field("a", Integer),
+        field("b", Integer),
+        field("c", Integer),
+        field("d", Integer),
+        field("e", Integer),
+        field("f", Integer),
+        field("g", Integer),
+        field("h", Integer),
+        Tuple::of);
+
+    Json.JValue object;
+    Json.JValue array;
+    Json.JValue dictionary;
+    Json.JValue number = Json.jNumber(1);
+
+    @Setup
+    public void setup() {
+        object = parse(
+            "{\"a\": 1, \"b\": 2, \"c\": 3, \"d\": 4, \"e\": 5, \"f\": 6, \"g\": 7, \"h\": 8" +
+            ", \"s\": \"42\", \"nothing\": null, \"nested\": {\"b\": {\"c\": 1}}}");
+        array = parse(List.range(0, 100).mkString("[", ",", "]"));
+        dictionary = parse(List.range(0, 100).map(i -> "\"k" + i + "\":" + i).mkString("{", ",", "}"));
+    }
+
+    static Json.JValue parse(String json) {
+        return new JacksonStreamingParser().parse(json).get();
+    }
+
+    @Benchmark
+    public Either<String, Integer> fieldPresent() {
+        return FIELD.apply(object);
+    }
+
+    @Benchmark
+    public Either<String, Integer> fieldMissing() {
+        return FIELD_MISSING.apply(object);
+    }
+
+    @Benchmark
+    public Either<String, Integer> atPath() {
+        return AT.apply(object);
+    }
+
+    @Benchmark
+    public Either<String, Integer> arrayIndex() {
+        return INDEX.apply(array);
+    }
+
+    @Benchmark
+    public Either<String, List<Integer>> listOfInts() {
+        return LIST.apply(array);
+    }
+
+    @Benchmark
+    public Either<String, Map<String, Integer>> dictOfInts() {
+        return DICT.apply(dictionary);
+    }
+
+    @Benchmark
+    public Either<String, String> oneOfFirst() {
+        return ONE_OF_FIRST.apply(number);
+    }
+
+    @Benchmark
+    public Either<String, String> oneOfLast() {
+        return ONE_OF_LAST.apply(number);
+    }
+
+    @Benchmark
+    public Either<String, Option<Integer>> optionMissing() {
+        return OPTION.apply(object);
+    }
+
+    @Benchmark
+    public Either<String, Option<Integer>> nullableNull() {
+        return NULLABLE.apply(object);
+    }
+
+    @Benchmark
+    public Either<String, Integer> andThenField() {
+        return AND_THEN.apply(object);
+    }
+
+    @Benchmark
+    public Either<String, Integer> filterPositive() {
+        return FILTER.apply(object);
+    }
+
+    @Benchmark
+    public Either<String, Integer> mapTryParse() {
+        return MAP_TRY.apply(object);
+    }
+
+    @Benchmark
+    public Either<String, Tuple2<Integer, Integer>> map2() {
+        return MAP2.apply(object);
+    }
+
+    @Benchmark
+    public Either<String, Tuple8<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>> map8() {
+        return MAP8.apply(object);
+    }
+}
@@ -0,0 +1,156 @@
+package com.fredhonorio.json_decoder;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple3;
+import io.vavr.Tuple8;
+import io.vavr.collection.List;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.fredhonorio.json_decoder.Decoders.Boolean;
+import static com.fredhonorio.json_decoder.Decoders.Double;
+import static com.fredhonorio.json_decoder.Decoders.Integer;
+import static com.fredhonorio.json_decoder.Decoders.Long;
+import static com.fredhonorio.json_decoder.Decoders.String;
+import static com.fredhonorio.json_decoder.Decoders.*;
+
+/**
+ * Parsing and decoding json strings, like {@link Decoders#decodeString(String, Decoder)} is used in practice.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    static final class Tree {
+        final int value;
+        final List<Tree> children;
+
+        Tree(int value, List<Tree> children) {
+            this.value = value;
+            this.children = children;
+        }
+    }
+
+    static final Decoder<Tuple8<Long, String, String, Boolean, Double, Option<String>, List<String>, Tuple3<String, String, Integer>>> USER = Decoder.map8(
+        field("id", Long),
+        field("login", String),
+        field("email", String),
+        field("active", Boolean),
+        field("score", Double),
+        field("bio", nullable(String)),
+        field("tags", list(String)),
+        field("address", Decoder.map3(
+            field("street", String),
+            field("city", String),
+            field("zip", Integer),
+            Tuple::of)),
+        Tuple::of);
+
+    static final Decoder<Tuple8<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>> ROW = Decoder.map8(
+        field("c0", Integer),
+        field("c1", Integer),
+        field("c2", Integer),
+        field("c3", Integer),
+        field("c4", Integer),
+        field("c5", Integer),
+        field("c6", Integer),
+        field("c7", Integer),
+        Tuple::of);
+
+    static final Decoder<Tuple8<Tuple8<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>, Tuple8<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>, Tuple8<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>, Tuple8<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>, String, String, String, String>> WIDE = Decoder.map8(
+        field("r0", ROW),
+        field("r1", ROW),
+        field("r2", ROW),
+        field("r3", ROW),
+        field("s0", String),
+        field("s1", String),
+        field("s2", String),
+        field("s3", String),
+        Tuple::of);
+
+    static final Decoder<List<Tuple3<Integer, String, Double>>> ITEMS = list(Decoder.map3(
+        field("id", Integer),
+        field("name", String),
+        field("price", Double),
+        Tuple::of));
+
+    static final Decoder<Tree> TREE = recursive(self -> Decoder.map2(
+        field("value", Integer),
+        optionalField("children", list(self)).map(children -> children.getOrElse(List.empty())),
+        Tree::new));
+
+    @Param({"1000", "100000"})
+    int size;
+
+    String user;
+    String wide;
+    String items;
+    String tree;
+
+    @Setup
+    public void setup() {
+        user = "{\"id\": 1234567890, \"login\": \"jdoe\", \"email\": \"jdoe@example.com\", \"active\": true" +
+               ", \"score\": 97.5, \"bio\": null, \"tags\": [\"admin\", \"beta\", \"eu\"]" +
+               ", \"address\": {\"street\": \"1st Street\", \"city\": \"Madrid\", \"zip\": 28001}" +
+               ", \"unused\": {\"a\": [1, 2, 3], \"b\": \"not decoded\"}}";
+
+        String row = List.range(0, 16).map(i -> "\"c" + i + "\": " + i).mkString("{", ", ", "}");
+        wide = List.range(0, 8).map(i -> "\"r" + i + "\": " + row + ", \"s" + i + "\": \"s" + i + "\"").mkString("{", ", ", "}");
+
+        items = List.range(0, size)
+            .map(i -> "{\"id\": " + i + ", \"name\": \"item " + i + "\", \"price\": " + i + ".99, \"stock\": true}")
+            .mkString("[", ", ", "]");
+
+        // a tree with `size` nodes, each with up to 4 children
+        tree = tree(0, size);
+    }
+
+    private static String tree(int value, int size) {
+        int children = Math.min(4, size - 1);
+        int each = children == 0 ? 0 : (size - 1) / children;
+        return "{\"value\": " + value + ", \"children\": " +
+               List.range(0, children).map(i -> tree(value + 1 + i * each, each)).mkString("[", ", ", "]") + "}";
+    }
+
+    @Benchmark
+    public Either<String, ?> smallResponse() {
+        return decodeString(user, USER);
+    }
+
+    @Benchmark
+    public Either<String, ?> smallResponseStreaming() {
+        return decodeStreaming(user, USER);
+    }
+
+    @Benchmark
+    public Either<String, ?> wideObject() {
+        return decodeString(wide, WIDE);
+    }
+
+    @Benchmark
+    public Either<String, ?> wideObjectStreaming() {
+        return decodeStreaming(wide, WIDE);
+    }
+
+    @Benchmark
+    public Either<String, ?> largeArray() {
+        return decodeString(items, ITEMS);
+    }
+
+    @Benchmark
+    public Either<String, ?> largeArrayStreaming() {
+        return decodeStreaming(items, ITEMS);
+    }
+
+    @Benchmark
+    public Either<String, ?> deepRecursion() {
+        return decodeString(tree, TREE);
+    }
+}
@@ -0,0 +1,80 @@
+package com.fredhonorio.json_decoder;
+
+import io.vavr.control.Either;
+import net.hamnaberg.json.Json;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static com.fredhonorio.json_decoder.Decoders.decodeValue;
+
+/**
+ * The simple decoders, applied to an already parsed {@link net.hamnaberg.json.Json.JValue}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveBenchmark {
+
+    Json.JValue string = Json.jString("hello");
+    Json.JValue integer = Json.jNumber(123456);
+    Json.JValue longNumber = Json.jNumber(new BigDecimal("1234567890123"));
+    Json.JValue decimal = Json.jNumber(new BigDecimal("3.14159"));
+    Json.JValue overflow = Json.jNumber(new BigDecimal("12345678901234567890"));
+    Json.JValue bool = Json.jBoolean(true);
+    Json.JValue nul = Json.jNull();
+
+    @Benchmark
+    public Either<String, String> string() {
+        return decodeValue(string, Decoders.String);
+    }
+
+    @Benchmark
+    public Either<String, Integer> integer() {
+        return decodeValue(integer, Decoders.Integer);
+    }
+
+    @Benchmark
+    public Either<String, Long> longValue() {
+        return decodeValue(longNumber, Decoders.Long);
+    }
+
+    @Benchmark
+    public Either<String, Float> floatValue() {
+        return decodeValue(decimal, Decoders.Float);
+    }
+
+    @Benchmark
+    public Either<String, Double> doubleValue() {
+        return decodeValue(decimal, Decoders.Double);
+    }
+
+    @Benchmark
+    public Either<String, BigDecimal> bigDecimal() {
+        return decodeValue(decimal, Decoders.BigDecimal);
+    }
+
+    @Benchmark
+    public Either<String, Boolean> bool() {
+        return decodeValue(bool, Decoders.Boolean);
+    }
+
+    @Benchmark
+    public Either<String, Json.JNull> jNull() {
+        return decodeValue(nul, Decoders.JNull);
+    }
+
+    @Benchmark
+    public Either<String, Integer> integerWrongType() {
+        return decodeValue(string, Decoders.Integer);
+    }
+
+    @Benchmark
+    public Either<String, Integer> integerOverflow() {
+        return decodeValue(overflow, Decoders.Integer);
+    }
+}
@@ -0,0 +1,92 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vavr.control.Either;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static io.vavr.control.Either.left;
+
+/**
+ * Decodes the elements of a top-level json array from a stream, one at a time. Only the element being decoded is
+ * read, and only the parts of it that the decoder reads are built.
+ * <p>
+ * An element that fails to decode is reported with its index, like in {@link Decoders#list(Decoder)}, and the
+ * following elements are still decoded. Input that isn't an array, or isn't valid json, ends the elements with an
+ * error.
+ */
+final class ArrayElements<T> implements Iterator<Either<String, T>>, AutoCloseable {
+    private final InputStream input;
+    private final Decoder<T> decoder;
+
+    private JsonParser parser;
+    private int index = 0;
+    private boolean done = false;
+    private Either<String, T> next;
+
+    ArrayElements(InputStream input, Decoder<T> decoder) {
+        this.input = input;
+        this.decoder = decoder;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done)
+            next = advance();
+        return next != null;
+    }
+
+    @Override
+    public Either<String, T> next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        Either<String, T> result = next;
+        next = null;
+        return result;
+    }
+
+    private Either<String, T> advance() {
+        try {
+            if (parser == null) {
+                parser = Streaming.FACTORY.createParser(input);
+                if (parser.nextToken() != JsonToken.START_ARRAY)
+                    return end(Streaming.decode(parser, Decoders.JArray).getLeft());
+            }
+
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                done = true;
+                close();
+                return null;
+            }
+
+            int i = index++;
+            return Streaming.read(parser, decoder)
+                .mapLeft(err -> DecodeError.element(i, err).message());
+        } catch (IOException e) {
+            return end(DecodeError.of(e.getMessage()));
+        }
+    }
+
+    private Either<String, T> end(DecodeError error) {
+        done = true;
+        close();
+        return left(error.message());
+    }
+
+    @Override
+    public void close() {
+        if (parser != null) {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
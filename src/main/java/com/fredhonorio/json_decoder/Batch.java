@@ -0,0 +1,98 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import io.vavr.collection.List;
+import io.vavr.control.Either;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Decodes many documents with the same decoder, like {@link Decoders#decodeStreaming(String, Decoder)} does for each
+ * of them. Documents are decoded in chunks, which can be decoded in parallel on the common {@link ForkJoinPool}.
+ * <p>
+ * Every document gets its own result, in the order of the documents.
+ */
+final class Batch {
+    private Batch() {
+    }
+
+    /**
+     * How many documents are decoded sequentially.
+     */
+    static final int CHUNK = 64;
+
+    /**
+     * Opens parsers for documents of some type.
+     */
+    @FunctionalInterface
+    interface Opener<D> {
+        JsonParser open(JsonFactory factory, D document) throws IOException;
+    }
+
+    static <T> List<Either<String, T>> strings(Iterable<String> documents, Decoder<T> decoder, boolean parallel) {
+        return decode(documents, JsonFactory::createParser, decoder, parallel);
+    }
+
+    static <T> List<Either<String, T>> bytes(Iterable<byte[]> documents, Decoder<T> decoder, boolean parallel) {
+        return decode(documents, JsonFactory::createParser, decoder, parallel);
+    }
+
+    private static <D, T> List<Either<String, T>> decode(Iterable<D> documents, Opener<D> opener, Decoder<T> decoder, boolean parallel) {
+        ArrayList<D> docs = new ArrayList<>();
+        documents.forEach(docs::add);
+
+        Object[] results = new Object[docs.size()];
+        if (parallel && docs.size() > CHUNK)
+            ForkJoinPool.commonPool().invoke(new Chunk<>(docs, opener, decoder, results, 0, docs.size()));
+        else
+            Chunk.decode(docs, opener, decoder, results, 0, docs.size());
+
+        @SuppressWarnings("unchecked")
+        List<Either<String, T>> list = (List<Either<String, T>>) (List<?>) List.of(results);
+        return list;
+    }
+
+    private static final class Chunk<D> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final java.util.List<D> documents;
+        private final Opener<D> opener;
+        private final Decoder<?> decoder;
+        private final Object[] results;
+        private final int from;
+        private final int to;
+
+        Chunk(java.util.List<D> documents, Opener<D> opener, Decoder<?> decoder, Object[] results, int from, int to) {
+            this.documents = documents;
+            this.opener = opener;
+            this.decoder = decoder;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                    new Chunk<>(documents, opener, decoder, results, from, mid),
+                    new Chunk<>(documents, opener, decoder, results, mid, to));
+                return;
+            }
+
+            decode(documents, opener, decoder, results, from, to);
+        }
+
+        static <D> void decode(java.util.List<D> documents, Opener<D> opener, Decoder<?> decoder, Object[] results, int from, int to) {
+            for (int i = from; i < to; i++) {
+                D document = documents.get(i);
+                results[i] = Streaming.decode(f -> opener.open(f, document), decoder).mapLeft(DecodeError::message);
+            }
+        }
+    }
+}
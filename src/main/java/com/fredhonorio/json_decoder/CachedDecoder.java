@@ -0,0 +1,32 @@
+package com.fredhonorio.json_decoder;
+
+/**
+ * A decoder that remembers the results of another for the most recently decoded values, see
+ * {@link Decoder#cached(int)}. Values are compared by their contents, so equal values found in different places of a
+ * document (or in different documents) are decoded once.
+ * <p>
+ * Computing the hash of a value walks all of it, so caching pays off for decoders that do more than that, e.g. ones
+ * that build objects from a few fields. Can be shared by several threads.
+ */
+public interface CachedDecoder<T> extends Decoder<T> {
+
+    /**
+     * How many times a value was found in the cache.
+     */
+    long hits();
+
+    /**
+     * How many times a value wasn't found in the cache and was decoded.
+     */
+    long misses();
+
+    /**
+     * How many values were dropped from the cache to make room for others.
+     */
+    long evictions();
+
+    /**
+     * How many values are in the cache.
+     */
+    int size();
+}
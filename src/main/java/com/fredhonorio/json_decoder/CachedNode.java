@@ -0,0 +1,93 @@
+package com.fredhonorio.json_decoder;
+
+import io.vavr.control.Either;
+import net.hamnaberg.json.Json;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link CachedDecoder} returned by {@link Decoder#cached(int)}. When decoding from a token stream only the parts
+ * of the value that the decoder reads are built and compared.
+ */
+final class CachedNode<T> extends Node<T> implements CachedDecoder<T> {
+    private final Cache<T> cache;
+
+    private CachedNode(Cache<T> cache, Shape shape, int kinds) {
+        super(shape, cache::decode, p -> cache.decode(Streaming.materialize(p, shape)), kinds);
+        this.cache = cache;
+    }
+
+    static <T> CachedNode<T> of(Decoder<T> decoder, int maxEntries) {
+        if (maxEntries <= 0)
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        return new CachedNode<>(new Cache<>(decoder, maxEntries), Shape.of(decoder), Kinds.of(decoder));
+    }
+
+    @Override
+    public long hits() {
+        return cache.hits.sum();
+    }
+
+    @Override
+    public long misses() {
+        return cache.misses.sum();
+    }
+
+    @Override
+    public long evictions() {
+        return cache.evictions.sum();
+    }
+
+    @Override
+    public int size() {
+        synchronized (cache.entries) {
+            return cache.entries.size();
+        }
+    }
+
+    /**
+     * Least recently used entries are evicted first. Values are decoded outside the lock, two threads that miss the
+     * same value at once both decode it.
+     */
+    private static final class Cache<T> {
+        private final Decoder<T> decoder;
+        private final LinkedHashMap<Json.JValue, Either<DecodeError, T>> entries;
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        Cache(Decoder<T> decoder, int maxEntries) {
+            this.decoder = decoder;
+            this.entries = new LinkedHashMap<Json.JValue, Either<DecodeError, T>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Json.JValue, Either<DecodeError, T>> eldest) {
+                    if (size() <= maxEntries)
+                        return false;
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        Either<DecodeError, T> decode(Json.JValue value) {
+            Either<DecodeError, T> result;
+            synchronized (entries) {
+                result = entries.get(value);
+            }
+            if (result != null) {
+                hits.increment();
+                return result;
+            }
+
+            misses.increment();
+            result = decoder.decode(value);
+            synchronized (entries) {
+                entries.put(value, result);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.fredhonorio.json_decoder;
+
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import net.hamnaberg.json.Json;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A decoding failure. Failures keep their structure (where it happened, what was expected and the offending value) and
+ * are only turned into a message when it's read, so decoders that recover from failures, like
+ * {@link Decoders#oneOf(Decoder[])} or {@link Decoders#option(Decoder)}, don't pay for messages nobody reads.
+ */
+public abstract class DecodeError {
+    private volatile String message;
+
+    DecodeError() {
+    }
+
+    /**
+     * The error message, the same that {@link Decoder#apply(Json.JValue)} returns.
+     */
+    public final String message() {
+        String m = message;
+        if (m == null) {
+            StringBuilder sb = new StringBuilder();
+            render(sb);
+            message = m = sb.toString();
+        }
+        return m;
+    }
+
+    /**
+     * Where the failure happened, e.g. {@code List("field 'a'", "array element #1")}.
+     */
+    public List<String> path() {
+        return List.empty();
+    }
+
+    /**
+     * The expected type, if the failure was caused by a value of the wrong type.
+     */
+    public Option<String> expected() {
+        return Option.none();
+    }
+
+    /**
+     * The offending value, if the failure was caused by a value of the wrong type.
+     */
+    public Option<Json.JValue> value() {
+        return Option.none();
+    }
+
+    @Override
+    public String toString() {
+        return message();
+    }
+
+    abstract void render(StringBuilder sb);
+
+    static DecodeError of(String message) {
+        return new Message(message);
+    }
+
+    static DecodeError lazy(Supplier<String> message) {
+        return new Lazy(message);
+    }
+
+    static DecodeError expected(String type, Json.JValue value) {
+        return new Expected(type, value);
+    }
+
+    static DecodeError field(String key, DecodeError cause) {
+        return new At("field '", key, "'", cause);
+    }
+
+    static DecodeError key(String key, DecodeError cause) {
+        return new At("dict key '", key, "'", cause);
+    }
+
+    static DecodeError element(int index, DecodeError cause) {
+        return new At("array element #", index, "", cause);
+    }
+
+    static DecodeError index(int index, DecodeError cause) {
+        return new At("at index ", index, "", cause);
+    }
+
+    static DecodeError oneOf(List<DecodeError> failures) {
+        return new OneOf(failures);
+    }
+
+    static DecodeError mapped(DecodeError cause, Function<String, String> f) {
+        return new Lazy(() -> f.apply(cause.message()));
+    }
+
+    private static final class Message extends DecodeError {
+        private final String text;
+
+        Message(String text) {
+            this.text = text;
+        }
+
+        @Override
+        void render(StringBuilder sb) {
+            sb.append(text);
+        }
+    }
+
+    private static final class Lazy extends DecodeError {
+        private final Supplier<String> text;
+
+        Lazy(Supplier<String> text) {
+            this.text = text;
+        }
+
+        @Override
+        void render(StringBuilder sb) {
+            sb.append(text.get());
+        }
+    }
+
+    private static final class Expected extends DecodeError {
+        private final String type;
+        private final Json.JValue value;
+
+        Expected(String type, Json.JValue value) {
+            this.type = type;
+            this.value = value;
+        }
+
+        @Override
+        public Option<String> expected() {
+            return Option.some(type);
+        }
+
+        @Override
+        public Option<Json.JValue> value() {
+            return Option.some(value);
+        }
+
+        @Override
+        void render(StringBuilder sb) {
+            sb.append("expected ").append(type).append(", got ").append(value);
+        }
+    }
+
+    private static final class At extends DecodeError {
+        private final String prefix;
+        private final Object segment;
+        private final String suffix;
+        private final DecodeError cause;
+
+        At(String prefix, Object segment, String suffix, DecodeError cause) {
+            this.prefix = prefix;
+            this.segment = segment;
+            this.suffix = suffix;
+            this.cause = cause;
+        }
+
+        @Override
+        public List<String> path() {
+            return cause.path().prepend(prefix + segment + suffix);
+        }
+
+        @Override
+        public Option<String> expected() {
+            return cause.expected();
+        }
+
+        @Override
+        public Option<Json.JValue> value() {
+            return cause.value();
+        }
+
+        @Override
+        void render(StringBuilder sb) {
+            sb.append(prefix).append(segment).append(suffix).append(": ");
+            cause.render(sb);
+        }
+    }
+
+    private static final class OneOf extends DecodeError {
+        private final List<DecodeError> failures;
+
+        OneOf(List<DecodeError> failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        void render(StringBuilder sb) {
+            sb.append("attempted multiple decoders, all failed: ");
+            String sep = "";
+            for (DecodeError failure : failures) {
+                sb.append(sep).append('(');
+                failure.render(sb);
+                sb.append(')');
+                sep = ", ";
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.fredhonorio.json_decoder;
+
+/**
+ * How {@link Decoders#tryDecodeString(String, Decoder)} and {@link Decoders#tryDecodeValue} fail when the decoder
+ * fails, with its error message. It has no stack trace: it's created where the result is turned into a
+ * {@link io.vavr.control.Try}, which says nothing about where the value was wrong, and filling in the trace is much
+ * slower than decoding when failures are common.
+ */
+public final class DecodeException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    public DecodeException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
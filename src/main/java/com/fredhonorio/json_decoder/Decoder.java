@@ -8,7 +8,6 @@ import net.hamnaberg.json.Json;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
-import static com.fredhonorio.json_decoder.EitherExtra.tryEither;
 import static io.vavr.control.Either.left;
 import static io.vavr.control.Either.right;
 
@@ -21,25 +20,34 @@ public interface Decoder<T> {
 
     Either<String, T> apply(Json.JValue value);
 
+    /**
+     * Like {@link #apply(Json.JValue)}, but keeps the failure as a {@link DecodeError}, which is only turned into a
+     * message when it's read.
+     */
+    default Either<DecodeError, T> decode(Json.JValue value) {
+        return apply(value).mapLeft(DecodeError::of);
+    }
+
     /**
      * Applies a function to the decoded value, if it exists.
      */
     default <U> Decoder<U> map(Function<T, U> f) {
-        return x -> apply(x).map(f);
+        return MappedNode.of(this, f);
     }
 
     /**
      * Applies a function to the error, if it exists
      */
     default Decoder<T> mapError(Function<String, String> f) {
-        return x -> apply(x).mapLeft(f);
+        // failures on every kind of value go through f
+        return Node.transform(this, r -> r.mapLeft(err -> DecodeError.mapped(err, f)), Kinds.ANY);
     }
 
     /**
      * Creates a Decoder that depends on the result of this Decoder.
      */
     default <U> Decoder<U> andThen(Function<T, Decoder<U>> f) {
-        return x -> apply(x).flatMap(t -> f.apply(t).apply(x));
+        return Node.of(Shape.ALL, x -> decode(x).flatMap(t -> f.apply(t).decode(x)));
     }
 
     /**
@@ -47,27 +55,40 @@ public interface Decoder<T> {
      */
     @Deprecated // oneOf is preferred because it has better messages
     default Decoder<T> orElse(Decoder<T> other) {
-        return x -> apply(x).orElse(() -> other.apply(x));
+        return Node.of(Shape.union(this, other), x -> decode(x).orElse(() -> other.decode(x)));
     }
 
     /**
      * Causes this decoder to fail if the given predicate is not true.
      */
     default Decoder<T> filter(Predicate<T> predicate, String ifMissing) {
-        return x -> apply(x).filter(predicate).getOrElse(left(ifMissing));
+        return Node.transform(this, r -> r.filter(predicate).getOrElse(() -> left(DecodeError.of(ifMissing))));
     }
 
     /**
      * Causes this decoder to fail if the given predicate is not true.
      */
     default Decoder<T> filter(Predicate<T> predicate, Function<T, String> ifMissing) {
-        return x -> apply(x)
+        return Node.transform(this, r -> r
             .fold(
                 Either::left,
                 ok ->
                     predicate.test(ok)
                         ? right(ok)
-                        : left(ifMissing.apply(ok)));
+                        : left(DecodeError.lazy(() -> ifMissing.apply(ok)))));
+    }
+
+    /**
+     * Transforms the decoded value with a function that may fail, fails with the message on the left. Cheaper than
+     * {@link #mapTry(CheckedFunction1)} when failures are common, since no exception is thrown.
+     */
+    default <U> Decoder<U> mapResult(Function<T, Either<String, U>> f) {
+        return Node.transform(this, r -> r.flatMap(y -> {
+            Either<String, U> result = f.apply(y);
+            return result.isRight()
+                ? right(result.get())
+                : left(DecodeError.of(result.getLeft()));
+        }));
     }
 
     /**
@@ -81,7 +102,8 @@ public interface Decoder<T> {
      * Attempts to transform the decoded value, fails with a given message if the transformation fails.
      */
     default <U> Decoder<U> mapTry(CheckedFunction1<T, U> f, String ifFailed) {
-        return x -> apply(x).flatMap(y -> tryEither(() -> f.apply(y)).mapLeft(err -> ifFailed));
+        DecodeError failed = DecodeError.of(ifFailed);
+        return Node.transform(this, r -> r.flatMap(y -> Try.of(() -> f.apply(y)).toEither().mapLeft(err -> failed)));
     }
 
     /**
@@ -89,11 +111,19 @@ public interface Decoder<T> {
      * error depending on the exception.
      */
     default <U> Decoder<U> mapTry(CheckedFunction1<T, U> f, Function<Throwable, String> ifFailed) {
-        return x -> apply(x).flatMap(y ->
+        return Node.transform(this, r -> r.flatMap(y ->
             Try.of(() -> f.apply(y))
                 .toEither()
-                .mapLeft(ifFailed)
-        );
+                .mapLeft(err -> DecodeError.lazy(() -> ifFailed.apply(err)))
+        ));
+    }
+
+    /**
+     * Remembers the results of this decoder for the given number of most recently decoded values, so that values that
+     * repeat are decoded once. Values are compared by their contents. See {@link CachedDecoder}.
+     */
+    default CachedDecoder<T> cached(int maxEntries) {
+        return CachedNode.of(this, maxEntries);
     }
 
     /**
@@ -102,87 +132,746 @@ public interface Decoder<T> {
      * @param <T> The narrow type
      * @return
      */
+    @SuppressWarnings("unchecked")
     static <T> Decoder<T> widen(Decoder<? extends T> dec) {
         return (Decoder<T>) dec;
     }
 
     // generated
     // @formatter:off
-     static <A, B, TT> Decoder<TT> map2(Decoder<A> dA, Decoder<B> dB, Function2<A, B, TT> f) {
-        return root ->
-            dA.apply(root).flatMap(_dA ->
-            dB.apply(root).map(_dB ->
-                f.apply(_dA, _dB)
-            ));
+    @SuppressWarnings("unchecked")
+    static <A, B, TT> Decoder<TT> map2(Decoder<A> dA, Decoder<B> dB, Function2<A, B, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1]), dA, dB);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            return right(f.apply(_dA.get(), _dB.get()));
+        });
     }
 
+    @SuppressWarnings("unchecked")
     static <A, B, C, TT> Decoder<TT> map3(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Function3<A, B, C, TT> f) {
-        return root ->
-            dA.apply(root).flatMap(_dA ->
-            dB.apply(root).flatMap(_dB ->
-            dC.apply(root).map(_dC ->
-                f.apply(_dA, _dB, _dC)
-            )));
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2]), dA, dB, dC);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get()));
+        });
     }
 
+    @SuppressWarnings("unchecked")
     static <A, B, C, D, TT> Decoder<TT> map4(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Function4<A, B, C, D, TT> f) {
-        return root ->
-            dA.apply(root).flatMap(_dA ->
-            dB.apply(root).flatMap(_dB ->
-            dC.apply(root).flatMap(_dC ->
-            dD.apply(root).map(_dD ->
-                f.apply(_dA, _dB, _dC, _dD)
-            ))));
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3]), dA, dB, dC, dD);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get()));
+        });
     }
 
+    @SuppressWarnings("unchecked")
     static <A, B, C, D, E, TT> Decoder<TT> map5(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Function5<A, B, C, D, E, TT> f) {
-        return root ->
-            dA.apply(root).flatMap(_dA ->
-            dB.apply(root).flatMap(_dB ->
-            dC.apply(root).flatMap(_dC ->
-            dD.apply(root).flatMap(_dD ->
-            dE.apply(root).map(_dE ->
-                f.apply(_dA, _dB, _dC, _dD, _dE)
-            )))));
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4]), dA, dB, dC, dD, dE);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get()));
+        });
     }
 
+    @SuppressWarnings("unchecked")
     static <A, B, C, D, E, F, TT> Decoder<TT> map6(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Function6<A, B, C, D, E, F, TT> f) {
-        return root ->
-            dA.apply(root).flatMap(_dA ->
-            dB.apply(root).flatMap(_dB ->
-            dC.apply(root).flatMap(_dC ->
-            dD.apply(root).flatMap(_dD ->
-            dE.apply(root).flatMap(_dE ->
-            dF.apply(root).map(_dF ->
-                f.apply(_dA, _dB, _dC, _dD, _dE, _dF)
-            ))))));
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5]), dA, dB, dC, dD, dE, dF);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get()));
+        });
     }
 
+    @SuppressWarnings("unchecked")
     static <A, B, C, D, E, F, G, TT> Decoder<TT> map7(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Function7<A, B, C, D, E, F, G, TT> f) {
-        return root ->
-            dA.apply(root).flatMap(_dA ->
-            dB.apply(root).flatMap(_dB ->
-            dC.apply(root).flatMap(_dC ->
-            dD.apply(root).flatMap(_dD ->
-            dE.apply(root).flatMap(_dE ->
-            dF.apply(root).flatMap(_dF ->
-            dG.apply(root).map(_dG ->
-                f.apply(_dA, _dB, _dC, _dD, _dE, _dF, _dG)
-            )))))));
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6]), dA, dB, dC, dD, dE, dF, dG);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get()));
+        });
     }
 
+    @SuppressWarnings("unchecked")
     static <A, B, C, D, E, F, G, H, TT> Decoder<TT> map8(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Function8<A, B, C, D, E, F, G, H, TT> f) {
-        return root ->
-            dA.apply(root).flatMap(_dA ->
-            dB.apply(root).flatMap(_dB ->
-            dC.apply(root).flatMap(_dC ->
-            dD.apply(root).flatMap(_dD ->
-            dE.apply(root).flatMap(_dE ->
-            dF.apply(root).flatMap(_dF ->
-            dG.apply(root).flatMap(_dG ->
-            dH.apply(root).map(_dH ->
-                f.apply(_dA, _dB, _dC, _dD, _dE, _dF, _dG, _dH)
-            ))))))));
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7]), dA, dB, dC, dD, dE, dF, dG, dH);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, TT> Decoder<TT> map9(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Functions.Function9<A, B, C, D, E, F, G, H, I, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8]), dA, dB, dC, dD, dE, dF, dG, dH, dI);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, TT> Decoder<TT> map10(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Functions.Function10<A, B, C, D, E, F, G, H, I, J, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, TT> Decoder<TT> map11(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Functions.Function11<A, B, C, D, E, F, G, H, I, J, K, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, L, TT> Decoder<TT> map12(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Decoder<L> dL, Functions.Function12<A, B, C, D, E, F, G, H, I, J, K, L, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10], (L) v[11]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            Either<DecodeError, L> _dL = dL.decode(root);
+            if (_dL.isLeft()) return left(_dL.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get(), _dL.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, L, M, TT> Decoder<TT> map13(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Decoder<L> dL, Decoder<M> dM, Functions.Function13<A, B, C, D, E, F, G, H, I, J, K, L, M, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10], (L) v[11], (M) v[12]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            Either<DecodeError, L> _dL = dL.decode(root);
+            if (_dL.isLeft()) return left(_dL.getLeft());
+            Either<DecodeError, M> _dM = dM.decode(root);
+            if (_dM.isLeft()) return left(_dM.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get(), _dL.get(), _dM.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, L, M, N, TT> Decoder<TT> map14(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Decoder<L> dL, Decoder<M> dM, Decoder<N> dN, Functions.Function14<A, B, C, D, E, F, G, H, I, J, K, L, M, N, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10], (L) v[11], (M) v[12], (N) v[13]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            Either<DecodeError, L> _dL = dL.decode(root);
+            if (_dL.isLeft()) return left(_dL.getLeft());
+            Either<DecodeError, M> _dM = dM.decode(root);
+            if (_dM.isLeft()) return left(_dM.getLeft());
+            Either<DecodeError, N> _dN = dN.decode(root);
+            if (_dN.isLeft()) return left(_dN.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get(), _dL.get(), _dM.get(), _dN.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, TT> Decoder<TT> map15(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Decoder<L> dL, Decoder<M> dM, Decoder<N> dN, Decoder<O> dO, Functions.Function15<A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10], (L) v[11], (M) v[12], (N) v[13], (O) v[14]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            Either<DecodeError, L> _dL = dL.decode(root);
+            if (_dL.isLeft()) return left(_dL.getLeft());
+            Either<DecodeError, M> _dM = dM.decode(root);
+            if (_dM.isLeft()) return left(_dM.getLeft());
+            Either<DecodeError, N> _dN = dN.decode(root);
+            if (_dN.isLeft()) return left(_dN.getLeft());
+            Either<DecodeError, O> _dO = dO.decode(root);
+            if (_dO.isLeft()) return left(_dO.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get(), _dL.get(), _dM.get(), _dN.get(), _dO.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, TT> Decoder<TT> map16(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Decoder<L> dL, Decoder<M> dM, Decoder<N> dN, Decoder<O> dO, Decoder<P> dP, Functions.Function16<A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10], (L) v[11], (M) v[12], (N) v[13], (O) v[14], (P) v[15]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            Either<DecodeError, L> _dL = dL.decode(root);
+            if (_dL.isLeft()) return left(_dL.getLeft());
+            Either<DecodeError, M> _dM = dM.decode(root);
+            if (_dM.isLeft()) return left(_dM.getLeft());
+            Either<DecodeError, N> _dN = dN.decode(root);
+            if (_dN.isLeft()) return left(_dN.getLeft());
+            Either<DecodeError, O> _dO = dO.decode(root);
+            if (_dO.isLeft()) return left(_dO.getLeft());
+            Either<DecodeError, P> _dP = dP.decode(root);
+            if (_dP.isLeft()) return left(_dP.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get(), _dL.get(), _dM.get(), _dN.get(), _dO.get(), _dP.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, TT> Decoder<TT> map17(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Decoder<L> dL, Decoder<M> dM, Decoder<N> dN, Decoder<O> dO, Decoder<P> dP, Decoder<Q> dQ, Functions.Function17<A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10], (L) v[11], (M) v[12], (N) v[13], (O) v[14], (P) v[15], (Q) v[16]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            Either<DecodeError, L> _dL = dL.decode(root);
+            if (_dL.isLeft()) return left(_dL.getLeft());
+            Either<DecodeError, M> _dM = dM.decode(root);
+            if (_dM.isLeft()) return left(_dM.getLeft());
+            Either<DecodeError, N> _dN = dN.decode(root);
+            if (_dN.isLeft()) return left(_dN.getLeft());
+            Either<DecodeError, O> _dO = dO.decode(root);
+            if (_dO.isLeft()) return left(_dO.getLeft());
+            Either<DecodeError, P> _dP = dP.decode(root);
+            if (_dP.isLeft()) return left(_dP.getLeft());
+            Either<DecodeError, Q> _dQ = dQ.decode(root);
+            if (_dQ.isLeft()) return left(_dQ.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get(), _dL.get(), _dM.get(), _dN.get(), _dO.get(), _dP.get(), _dQ.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, TT> Decoder<TT> map18(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Decoder<L> dL, Decoder<M> dM, Decoder<N> dN, Decoder<O> dO, Decoder<P> dP, Decoder<Q> dQ, Decoder<R> dR, Functions.Function18<A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10], (L) v[11], (M) v[12], (N) v[13], (O) v[14], (P) v[15], (Q) v[16], (R) v[17]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ, dR);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ, dR), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            Either<DecodeError, L> _dL = dL.decode(root);
+            if (_dL.isLeft()) return left(_dL.getLeft());
+            Either<DecodeError, M> _dM = dM.decode(root);
+            if (_dM.isLeft()) return left(_dM.getLeft());
+            Either<DecodeError, N> _dN = dN.decode(root);
+            if (_dN.isLeft()) return left(_dN.getLeft());
+            Either<DecodeError, O> _dO = dO.decode(root);
+            if (_dO.isLeft()) return left(_dO.getLeft());
+            Either<DecodeError, P> _dP = dP.decode(root);
+            if (_dP.isLeft()) return left(_dP.getLeft());
+            Either<DecodeError, Q> _dQ = dQ.decode(root);
+            if (_dQ.isLeft()) return left(_dQ.getLeft());
+            Either<DecodeError, R> _dR = dR.decode(root);
+            if (_dR.isLeft()) return left(_dR.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get(), _dL.get(), _dM.get(), _dN.get(), _dO.get(), _dP.get(), _dQ.get(), _dR.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, S, TT> Decoder<TT> map19(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Decoder<L> dL, Decoder<M> dM, Decoder<N> dN, Decoder<O> dO, Decoder<P> dP, Decoder<Q> dQ, Decoder<R> dR, Decoder<S> dS, Functions.Function19<A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, S, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10], (L) v[11], (M) v[12], (N) v[13], (O) v[14], (P) v[15], (Q) v[16], (R) v[17], (S) v[18]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ, dR, dS);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ, dR, dS), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            Either<DecodeError, L> _dL = dL.decode(root);
+            if (_dL.isLeft()) return left(_dL.getLeft());
+            Either<DecodeError, M> _dM = dM.decode(root);
+            if (_dM.isLeft()) return left(_dM.getLeft());
+            Either<DecodeError, N> _dN = dN.decode(root);
+            if (_dN.isLeft()) return left(_dN.getLeft());
+            Either<DecodeError, O> _dO = dO.decode(root);
+            if (_dO.isLeft()) return left(_dO.getLeft());
+            Either<DecodeError, P> _dP = dP.decode(root);
+            if (_dP.isLeft()) return left(_dP.getLeft());
+            Either<DecodeError, Q> _dQ = dQ.decode(root);
+            if (_dQ.isLeft()) return left(_dQ.getLeft());
+            Either<DecodeError, R> _dR = dR.decode(root);
+            if (_dR.isLeft()) return left(_dR.getLeft());
+            Either<DecodeError, S> _dS = dS.decode(root);
+            if (_dS.isLeft()) return left(_dS.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get(), _dL.get(), _dM.get(), _dN.get(), _dO.get(), _dP.get(), _dQ.get(), _dR.get(), _dS.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, S, T, TT> Decoder<TT> map20(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Decoder<L> dL, Decoder<M> dM, Decoder<N> dN, Decoder<O> dO, Decoder<P> dP, Decoder<Q> dQ, Decoder<R> dR, Decoder<S> dS, Decoder<T> dT, Functions.Function20<A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, S, T, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10], (L) v[11], (M) v[12], (N) v[13], (O) v[14], (P) v[15], (Q) v[16], (R) v[17], (S) v[18], (T) v[19]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ, dR, dS, dT);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ, dR, dS, dT), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            Either<DecodeError, L> _dL = dL.decode(root);
+            if (_dL.isLeft()) return left(_dL.getLeft());
+            Either<DecodeError, M> _dM = dM.decode(root);
+            if (_dM.isLeft()) return left(_dM.getLeft());
+            Either<DecodeError, N> _dN = dN.decode(root);
+            if (_dN.isLeft()) return left(_dN.getLeft());
+            Either<DecodeError, O> _dO = dO.decode(root);
+            if (_dO.isLeft()) return left(_dO.getLeft());
+            Either<DecodeError, P> _dP = dP.decode(root);
+            if (_dP.isLeft()) return left(_dP.getLeft());
+            Either<DecodeError, Q> _dQ = dQ.decode(root);
+            if (_dQ.isLeft()) return left(_dQ.getLeft());
+            Either<DecodeError, R> _dR = dR.decode(root);
+            if (_dR.isLeft()) return left(_dR.getLeft());
+            Either<DecodeError, S> _dS = dS.decode(root);
+            if (_dS.isLeft()) return left(_dS.getLeft());
+            Either<DecodeError, T> _dT = dT.decode(root);
+            if (_dT.isLeft()) return left(_dT.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get(), _dL.get(), _dM.get(), _dN.get(), _dO.get(), _dP.get(), _dQ.get(), _dR.get(), _dS.get(), _dT.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, S, T, U, TT> Decoder<TT> map21(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Decoder<L> dL, Decoder<M> dM, Decoder<N> dN, Decoder<O> dO, Decoder<P> dP, Decoder<Q> dQ, Decoder<R> dR, Decoder<S> dS, Decoder<T> dT, Decoder<U> dU, Functions.Function21<A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, S, T, U, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10], (L) v[11], (M) v[12], (N) v[13], (O) v[14], (P) v[15], (Q) v[16], (R) v[17], (S) v[18], (T) v[19], (U) v[20]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ, dR, dS, dT, dU);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ, dR, dS, dT, dU), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            Either<DecodeError, L> _dL = dL.decode(root);
+            if (_dL.isLeft()) return left(_dL.getLeft());
+            Either<DecodeError, M> _dM = dM.decode(root);
+            if (_dM.isLeft()) return left(_dM.getLeft());
+            Either<DecodeError, N> _dN = dN.decode(root);
+            if (_dN.isLeft()) return left(_dN.getLeft());
+            Either<DecodeError, O> _dO = dO.decode(root);
+            if (_dO.isLeft()) return left(_dO.getLeft());
+            Either<DecodeError, P> _dP = dP.decode(root);
+            if (_dP.isLeft()) return left(_dP.getLeft());
+            Either<DecodeError, Q> _dQ = dQ.decode(root);
+            if (_dQ.isLeft()) return left(_dQ.getLeft());
+            Either<DecodeError, R> _dR = dR.decode(root);
+            if (_dR.isLeft()) return left(_dR.getLeft());
+            Either<DecodeError, S> _dS = dS.decode(root);
+            if (_dS.isLeft()) return left(_dS.getLeft());
+            Either<DecodeError, T> _dT = dT.decode(root);
+            if (_dT.isLeft()) return left(_dT.getLeft());
+            Either<DecodeError, U> _dU = dU.decode(root);
+            if (_dU.isLeft()) return left(_dU.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get(), _dL.get(), _dM.get(), _dN.get(), _dO.get(), _dP.get(), _dQ.get(), _dR.get(), _dS.get(), _dT.get(), _dU.get()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, S, T, U, V, TT> Decoder<TT> map22(Decoder<A> dA, Decoder<B> dB, Decoder<C> dC, Decoder<D> dD, Decoder<E> dE, Decoder<F> dF, Decoder<G> dG, Decoder<H> dH, Decoder<I> dI, Decoder<J> dJ, Decoder<K> dK, Decoder<L> dL, Decoder<M> dM, Decoder<N> dN, Decoder<O> dO, Decoder<P> dP, Decoder<Q> dQ, Decoder<R> dR, Decoder<S> dS, Decoder<T> dT, Decoder<U> dU, Decoder<V> dV, Functions.Function22<A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, S, T, U, V, TT> f) {
+        Decoder<TT> fields = Fields.compile(v -> f.apply((A) v[0], (B) v[1], (C) v[2], (D) v[3], (E) v[4], (F) v[5], (G) v[6], (H) v[7], (I) v[8], (J) v[9], (K) v[10], (L) v[11], (M) v[12], (N) v[13], (O) v[14], (P) v[15], (Q) v[16], (R) v[17], (S) v[18], (T) v[19], (U) v[20], (V) v[21]), dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ, dR, dS, dT, dU, dV);
+        if (fields != null)
+            return fields;
+
+        return Node.of(Shape.union(dA, dB, dC, dD, dE, dF, dG, dH, dI, dJ, dK, dL, dM, dN, dO, dP, dQ, dR, dS, dT, dU, dV), root -> {
+            Either<DecodeError, A> _dA = dA.decode(root);
+            if (_dA.isLeft()) return left(_dA.getLeft());
+            Either<DecodeError, B> _dB = dB.decode(root);
+            if (_dB.isLeft()) return left(_dB.getLeft());
+            Either<DecodeError, C> _dC = dC.decode(root);
+            if (_dC.isLeft()) return left(_dC.getLeft());
+            Either<DecodeError, D> _dD = dD.decode(root);
+            if (_dD.isLeft()) return left(_dD.getLeft());
+            Either<DecodeError, E> _dE = dE.decode(root);
+            if (_dE.isLeft()) return left(_dE.getLeft());
+            Either<DecodeError, F> _dF = dF.decode(root);
+            if (_dF.isLeft()) return left(_dF.getLeft());
+            Either<DecodeError, G> _dG = dG.decode(root);
+            if (_dG.isLeft()) return left(_dG.getLeft());
+            Either<DecodeError, H> _dH = dH.decode(root);
+            if (_dH.isLeft()) return left(_dH.getLeft());
+            Either<DecodeError, I> _dI = dI.decode(root);
+            if (_dI.isLeft()) return left(_dI.getLeft());
+            Either<DecodeError, J> _dJ = dJ.decode(root);
+            if (_dJ.isLeft()) return left(_dJ.getLeft());
+            Either<DecodeError, K> _dK = dK.decode(root);
+            if (_dK.isLeft()) return left(_dK.getLeft());
+            Either<DecodeError, L> _dL = dL.decode(root);
+            if (_dL.isLeft()) return left(_dL.getLeft());
+            Either<DecodeError, M> _dM = dM.decode(root);
+            if (_dM.isLeft()) return left(_dM.getLeft());
+            Either<DecodeError, N> _dN = dN.decode(root);
+            if (_dN.isLeft()) return left(_dN.getLeft());
+            Either<DecodeError, O> _dO = dO.decode(root);
+            if (_dO.isLeft()) return left(_dO.getLeft());
+            Either<DecodeError, P> _dP = dP.decode(root);
+            if (_dP.isLeft()) return left(_dP.getLeft());
+            Either<DecodeError, Q> _dQ = dQ.decode(root);
+            if (_dQ.isLeft()) return left(_dQ.getLeft());
+            Either<DecodeError, R> _dR = dR.decode(root);
+            if (_dR.isLeft()) return left(_dR.getLeft());
+            Either<DecodeError, S> _dS = dS.decode(root);
+            if (_dS.isLeft()) return left(_dS.getLeft());
+            Either<DecodeError, T> _dT = dT.decode(root);
+            if (_dT.isLeft()) return left(_dT.getLeft());
+            Either<DecodeError, U> _dU = dU.decode(root);
+            if (_dU.isLeft()) return left(_dU.getLeft());
+            Either<DecodeError, V> _dV = dV.decode(root);
+            if (_dV.isLeft()) return left(_dV.getLeft());
+            return right(f.apply(_dA.get(), _dB.get(), _dC.get(), _dD.get(), _dE.get(), _dF.get(), _dG.get(), _dH.get(), _dI.get(), _dJ.get(), _dK.get(), _dL.get(), _dM.get(), _dN.get(), _dO.get(), _dP.get(), _dQ.get(), _dR.get(), _dS.get(), _dT.get(), _dU.get(), _dV.get()));
+        });
     }
     // @formatter:on
 }
@@ -1,21 +1,36 @@
 package com.fredhonorio.json_decoder;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import io.vavr.collection.HashMap;
 import io.vavr.collection.List;
 import io.vavr.collection.Map;
-import io.vavr.collection.Stream;
 import io.vavr.control.Either;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
 import net.hamnaberg.json.Json;
-import net.hamnaberg.json.jackson.JacksonStreamingParser;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.fredhonorio.json_decoder.EitherExtra.*;
 import static io.vavr.control.Either.left;
@@ -31,6 +46,9 @@ public final class Decoders {
     private Decoders() {
     }
 
+    private static final DecodeError MISSING = DecodeError.of("missing");
+    private static final DecodeError NO_DECODERS = DecodeError.of("no decoders given");
+
     /**
      * Simply returns the {@link net.hamnaberg.json.Json.JValue}. Always succeeds.
      */
@@ -39,53 +57,86 @@ public final class Decoders {
     /**
      * Decodes a {@link net.hamnaberg.json.Json.JObject}.
      */
-    public static final Decoder<Json.JObject> JObject = v -> is(v, Json.JValue::isObject, Json.JValue::asJsonObject, "JObject");
+    public static final Decoder<Json.JObject> JObject = Node.of(Shape.ALL, v -> is(v, Json.JValue::isObject, Json.JValue::asJsonObject, "JObject"))
+        .accepting(Kinds.OBJECT);
 
     /**
      * Decodes a {@link net.hamnaberg.json.Json.JArray}.
      */
-    public static final Decoder<Json.JArray> JArray = v -> is(v, Json.JValue::isArray, Json.JValue::asJsonArray, "JArray");
+    public static final Decoder<Json.JArray> JArray = Node.of(Shape.ALL, v -> is(v, Json.JValue::isArray, Json.JValue::asJsonArray, "JArray"))
+        .accepting(Kinds.ARRAY);
 
     /**
      * Decodes a {@link net.hamnaberg.json.Json.JNull}.
      */
-    public static final Decoder<Json.JNull> JNull = v -> is(v, Json.JValue::isNull, Json.JValue::asJsonNull, "JNull");
+    public static final Decoder<Json.JNull> JNull = scalar(
+        v -> is(v, Json.JValue::isNull, Json.JValue::asJsonNull, "JNull"),
+        JsonToken.VALUE_NULL::equals,
+        Kinds.NULL,
+        p -> right(Json.jNull()));
 
     /**
      * Decodes a {@link String}. Only succeeds if the {@link net.hamnaberg.json.Json.JValue} is a json string. Performs
      * no coercion.
      */
-    public static final Decoder<String> String = v -> is(v, Json.JValue::isString, Json.JValue::asString, "String");
+    public static final Decoder<String> String = scalar(
+        v -> is(v, Json.JValue::isString, Json.JValue::asString, "String"),
+        JsonToken.VALUE_STRING::equals,
+        Kinds.STRING,
+        p -> right(p.getText()));
+
+    /**
+     * Like {@link #String}, but equal strings are deduplicated with the shared {@link StringPool}.
+     */
+    public static Decoder<String> internedString() {
+        return internedString(StringPool.shared());
+    }
+
+    /**
+     * Like {@link #String}, but equal strings are deduplicated with a given {@link StringPool}, so that decoded
+     * values that repeat share a single instance.
+     */
+    public static Decoder<String> internedString(StringPool pool) {
+        return Node.transform(String, r -> r.map(pool::intern));
+    }
 
     /**
      * Decodes a {@link net.hamnaberg.json.Json.JNumber} as a {@link BigDecimal}.
      */
-    public static final Decoder<BigDecimal> BigDecimal = v -> is(v, Json.JValue::isNumber, Json.JValue::asBigDecimal, "BigDecimal");
+    public static final Decoder<BigDecimal> BigDecimal = scalar(
+        v -> is(v, Json.JValue::isNumber, Json.JValue::asBigDecimal, "BigDecimal"),
+        JsonToken::isNumeric,
+        Kinds.NUMBER,
+        p -> right(p.getDecimalValue()));
 
     /**
      * Decodes a {@link Boolean}.
      */
-    public static final Decoder<Boolean> Boolean = v -> is(v, Json.JValue::isBoolean, Json.JValue::asBoolean, "Boolean");
+    public static final Decoder<Boolean> Boolean = scalar(
+        v -> is(v, Json.JValue::isBoolean, Json.JValue::asBoolean, "Boolean"),
+        JsonToken::isBoolean,
+        Kinds.BOOLEAN,
+        p -> right(p.getCurrentToken() == JsonToken.VALUE_TRUE));
 
     /**
      * Decodes a {@link net.hamnaberg.json.Json.JNumber} as a {@link Float}.
      */
-    public static final Decoder<Float> Float = v -> BigDecimal.apply(v).flatMap(big -> tryEither(big::floatValue));
+    public static final Decoder<Float> Float = number(Numbers::toFloat, Numbers::readFloat);
 
     /**
      * Decodes a {@link net.hamnaberg.json.Json.JNumber} as a {@link Double}.
      */
-    public static final Decoder<Double> Double = v -> BigDecimal.apply(v).flatMap(big -> tryEither(big::doubleValue));
+    public static final Decoder<Double> Double = number(Numbers::toDouble, Numbers::readDouble);
 
     /**
      * Decodes a {@link net.hamnaberg.json.Json.JNumber} as a {@link Integer}.
      */
-    public static final Decoder<Integer> Integer = v -> BigDecimal.apply(v).flatMap(big -> tryEither(big::intValueExact));
+    public static final Decoder<Integer> Integer = number(Numbers::toInt, Numbers::readInt);
 
     /**
      * Decodes a {@link net.hamnaberg.json.Json.JNumber} as a {@link Long}.
      */
-    public static final Decoder<Long> Long = v -> BigDecimal.apply(v).flatMap(big -> tryEither(big::longValueExact));
+    public static final Decoder<Long> Long = number(Numbers::toLong, Numbers::readLong);
 
     /**
      * Decodes a {@link net.hamnaberg.json.Json.JArray} and applies the given decoder to the members.
@@ -94,13 +145,82 @@ public final class Decoders {
      * @return
      */
     public static <T> Decoder<List<T>> list(Decoder<T> inner) {
-        return val -> JArray.apply(val)
-            .map(Stream::ofAll)
-            .flatMap(s ->
-                s.zipWithIndex()
-                    .map(t -> t.apply((j, idx) -> inner.mapError(err -> "array element #" + idx + ": " + err).apply(j)))
-                    .transform(EitherExtra::sequence)
-            );
+        Function<Json.JValue, Either<DecodeError, List<T>>> decoder = val -> JArray.decode(val)
+            .flatMap(arr -> {
+                // a single pass that stops at the first failure
+                ArrayList<T> values = new ArrayList<>(arr.size());
+                for (Json.JValue j : arr) {
+                    Either<DecodeError, T> value = inner.decode(j);
+                    if (value.isLeft())
+                        return left(DecodeError.element(values.size(), value.getLeft()));
+                    values.add(value.get());
+                }
+                return right(List.ofAll(values));
+            });
+
+        return Node.of(Shape.elements(Shape.of(inner)), decoder, Streaming.list(inner, decoder))
+            .accepting(Kinds.ARRAY);
+    }
+
+    /**
+     * Like {@link #list(Decoder)}, but decodes large arrays in parallel, on the common
+     * {@link java.util.concurrent.ForkJoinPool}. Worth it when the elements are expensive to decode, e.g. large
+     * objects. Arrays of up to 512 elements are decoded sequentially.
+     * <p>
+     * The result is the same as {@code list(inner)}: the elements keep their order and, if several fail, the first
+     * one is reported.
+     *
+     * @param inner The decoder for the members, which must be safe to use from several threads
+     * @return
+     */
+    public static <T> Decoder<List<T>> parList(Decoder<T> inner) {
+        return parList(inner, Parallel.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Like {@link #parList(Decoder)}, with the number of elements up to which arrays are decoded sequentially. Larger
+     * arrays are split in chunks of at most this many elements.
+     *
+     * @param inner     The decoder for the members, which must be safe to use from several threads
+     * @param threshold The size of the chunks
+     * @return
+     */
+    public static <T> Decoder<List<T>> parList(Decoder<T> inner, int threshold) {
+        return Node.of(Shape.elements(Shape.of(inner)), val -> JArray.decode(val)
+            .flatMap(arr -> Parallel.list(arr, inner, threshold)))
+            .accepting(Kinds.ARRAY);
+    }
+
+    /**
+     * Decodes a {@link net.hamnaberg.json.Json.JArray} of numbers as an {@code int[]}, without boxing the elements.
+     * Fails like {@code list(Integer)}.
+     */
+    public static Decoder<int[]> intArray() {
+        return PrimitiveArrays.INTS;
+    }
+
+    /**
+     * Decodes a {@link net.hamnaberg.json.Json.JArray} of numbers as a {@code long[]}, without boxing the elements.
+     * Fails like {@code list(Long)}.
+     */
+    public static Decoder<long[]> longArray() {
+        return PrimitiveArrays.LONGS;
+    }
+
+    /**
+     * Decodes a {@link net.hamnaberg.json.Json.JArray} of numbers as a {@code float[]}, without boxing the elements.
+     * Fails like {@code list(Float)}.
+     */
+    public static Decoder<float[]> floatArray() {
+        return PrimitiveArrays.FLOATS;
+    }
+
+    /**
+     * Decodes a {@link net.hamnaberg.json.Json.JArray} of numbers as a {@code double[]}, without boxing the elements.
+     * Fails like {@code list(Double)}.
+     */
+    public static Decoder<double[]> doubleArray() {
+        return PrimitiveArrays.DOUBLES;
     }
 
     /**
@@ -110,10 +230,7 @@ public final class Decoders {
      * @return
      */
     public static <T> Decoder<Option<T>> option(Decoder<T> inner) {
-        return oneOf(
-            inner.map(Option::of),
-            succeed(Option.none())
-        );
+        return option(inner, Option::of, Option.none());
     }
 
     /**
@@ -125,7 +242,7 @@ public final class Decoders {
      * @return
      */
     public static <T> Decoder<T> option(Decoder<T> decoder, T otherwise) {
-        return oneOf(decoder, succeed(otherwise));
+        return option(decoder, Function.identity(), otherwise);
     }
 
     /**
@@ -137,11 +254,11 @@ public final class Decoders {
      * @return
      */
     public static <T> Decoder<Option<T>> optionalField(String key, Decoder<T> inner) {
-        return root -> JObject.apply(root)
-            .flatMap(r ->
-                r.get(key)
-                    .map(val -> inner.apply(val).map(Option::some).mapLeft(err -> "field '" + key + "': " + err))
-                    .getOrElse(right(Option.none())));
+        Either<DecodeError, Option<T>> missing = right(Option.none());
+        return FieldNode.of(
+            key,
+            Node.transform(inner, r -> r.map(Option::some).mapLeft(err -> DecodeError.field(key, err))),
+            () -> missing);
     }
 
     /**
@@ -159,16 +276,14 @@ public final class Decoders {
     }
 
     /**
-     * Allows a value to be <code>null</code>.
+     * Allows a value to be <code>null</code>. When decoding from a token stream, an array or object that the inner
+     * decoder may accept fails like the inner decoder.
      *
      * @param inner
      * @return
      */
     public static <T> Decoder<Option<T>> nullable(Decoder<T> inner) {
-        return oneOf(
-            inner.map(Option::of),
-            nullValue(Option.<T>none())
-        );
+        return nullable(inner, Option::of, Option.none());
     }
 
     /**
@@ -180,10 +295,7 @@ public final class Decoders {
      * @return
      */
     public static <T> Decoder<T> nullable(Decoder<T> decoder, T ifNull) {
-        return oneOf(
-            decoder,
-            nullValue(ifNull)
-        );
+        return nullable(decoder, Function.identity(), ifNull);
     }
 
     /**
@@ -205,9 +317,8 @@ public final class Decoders {
      * @return
      */
     public static <T> Decoder<T> field(String key, Decoder<T> inner) {
-        return root -> JObject.apply(root)
-            .flatMap(val -> ofOption(val.get(key), "field '" + key + "': missing"))
-            .flatMap(val -> inner.apply(val).mapLeft(err -> "field '" + key + "': " + err));
+        Either<DecodeError, T> missing = left(DecodeError.field(key, MISSING));
+        return FieldNode.of(key, PathNode.field(key, inner), () -> missing);
     }
 
     /**
@@ -216,34 +327,76 @@ public final class Decoders {
      * @see #oneOf(List)
      */
     @SafeVarargs
+    @SuppressWarnings("varargs") // List.of only reads the array
     public static <T> Decoder<T> oneOf(Decoder<T>... decoders) {
         return oneOf(List.of(decoders));
     }
 
     /**
-     * Attempts the given decoders until one succeeds.
+     * Attempts the given decoders until one succeeds. Decoders that only succeed on a kind of value other than the
+     * given one (e.g. a {@link #list(Decoder)} given a string) are skipped, they aren't run and fail as they would
+     * have, e.g. with {@code "expected JArray, got ..."}.
      *
      * @param decoders
      * @return
      */
     public static <T> Decoder<T> oneOf(List<Decoder<T>> decoders) {
+        java.util.List<Decoder<T>> alternatives = decoders.toJavaList();
+        int[] kinds = new int[alternatives.size()];
+        int accepted = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = Kinds.of(alternatives.get(i));
+            accepted |= kinds[i];
+        }
 
-        return val -> {
-            Stream<Either<java.lang.String, T>> results = decoders
-                .toStream()
-                .map(d -> d.apply(val));
-
-            if (results.isEmpty())
-                return left("no decoders given");
-
-            return results
-                .find(Either::isRight)
-                .getOrElse(() -> left(
-                    results
-                        .map(Either::getLeft)
-                        .mkString("attempted multiple decoders, all failed: (", "), (", ")")
-                ));
-        };
+        return Node.of(Shape.union(decoders), val -> {
+            if (kinds.length == 0)
+                return left(NO_DECODERS);
+
+            // failures are only rendered if every decoder fails and the message is read
+            int kind = Kinds.of(val);
+            List<DecodeError> failures = List.empty();
+            for (int i = 0; i < kinds.length; i++) {
+                // only decoders of a single kind fail with a message known in advance
+                if ((kinds[i] & kind) == 0 && Kinds.single(kinds[i])) {
+                    failures = failures.prepend(Kinds.mismatch(kinds[i], val));
+                    continue;
+                }
+
+                Either<DecodeError, T> result = alternatives.get(i).decode(val);
+                if (result.isRight())
+                    return result;
+                failures = failures.prepend(result.getLeft());
+            }
+            return left(DecodeError.oneOf(failures.reverse()));
+        })
+            .accepting(accepted);
+    }
+
+    /**
+     * Decodes a union of objects that have a field saying which one they are, e.g. {@code {"type": "circle", "radius":
+     * 1}}. The field is decoded once and the decoder for its value is looked up and applied to the whole object, the
+     * other decoders aren't attempted.
+     *
+     * @param tagField The field that tells the objects apart
+     * @param cases    The decoder for each value of the field
+     * @return
+     */
+    public static <T> Decoder<T> tagged(String tagField, Map<String, Decoder<? extends T>> cases) {
+        Decoder<String> tag = field(tagField, String);
+        java.util.HashMap<String, Decoder<? extends T>> table = new java.util.HashMap<>();
+        for (Tuple2<String, Decoder<? extends T>> c : cases)
+            table.put(c._1, c._2);
+
+        return Node.<T>of(Shape.of(tag).union(Shape.union(table.values())), root -> tag.decode(root)
+            .flatMap(t -> {
+                Decoder<? extends T> decoder = table.get(t);
+                if (decoder == null)
+                    return left(DecodeError.field(tagField, DecodeError.lazy(() ->
+                        "unknown tag '" + t + "', expected one of " + List.ofAll(table.keySet()).sorted().mkString(", "))));
+                return decoder.decode(root).map(v -> v);
+            }))
+            .accepting(Kinds.OBJECT);
     }
 
     /**
@@ -253,7 +406,8 @@ public final class Decoders {
      * @return
      */
     public static <T> Decoder<T> succeed(T value) {
-        return obj -> Either.right(value);
+        Either<DecodeError, T> result = right(value);
+        return Node.of(Shape.NONE, obj -> result);
     }
 
     /**
@@ -263,7 +417,8 @@ public final class Decoders {
      * @return
      */
     public static <T> Decoder<T> fail(String error) {
-        return obj -> Either.left(error);
+        Either<DecodeError, T> result = left(DecodeError.of(error));
+        return Node.of(Shape.NONE, obj -> result);
     }
 
     /**
@@ -274,13 +429,150 @@ public final class Decoders {
      * @return
      */
     public static <T> Decoder<Map<String, T>> dict(Decoder<T> valueDecoder) {
-        return root -> JObject.apply(root)
-            .flatMap(r ->
-                r.mapToList((k, v) -> valueDecoder.apply(v)
-                    .map(decV -> Tuple.of(k, decV))
-                    .mapLeft(err -> "dict key '" + k + "': " + err))
-                    .transform(EitherExtra::sequence))
-            .map(HashMap::ofEntries);
+        return vavrDict(valueDecoder, UnaryOperator.identity());
+    }
+
+    /**
+     * Decodes a {@link net.hamnaberg.json.Json.JObject} into a {@link java.util.Map} created by a given function,
+     * applying a given decoder to each of the values. The function is given the number of members, when it's known,
+     * so the map can be sized to fit them. Stops at the first value that fails.
+     *
+     * @param valueDecoder
+     * @param newMap       Creates an empty map, given the expected number of entries
+     * @return
+     */
+    public static <T, M extends java.util.Map<String, T>> Decoder<M> dict(Decoder<T> valueDecoder, IntFunction<M> newMap) {
+        Function<Json.JValue, Either<DecodeError, M>> decoder = root -> JObject.decode(root)
+            .flatMap(obj -> {
+                M entries = newMap.apply(obj.size());
+                for (Tuple2<String, Json.JValue> member : obj.mapToList(Tuple::of)) {
+                    Either<DecodeError, T> value = valueDecoder.decode(member._2);
+                    if (value.isLeft())
+                        return left(DecodeError.key(member._1, value.getLeft()));
+                    entries.put(member._1, value.get());
+                }
+                return right(entries);
+            });
+
+        return Node.of(Shape.members(Shape.of(valueDecoder)), decoder, Streaming.javaDict(valueDecoder, newMap, decoder))
+            .accepting(Kinds.OBJECT);
+    }
+
+    /**
+     * Like {@link #dict(Decoder)}, but decodes into a {@link java.util.HashMap} sized for the members.
+     *
+     * @param valueDecoder
+     * @return
+     */
+    public static <T> Decoder<java.util.HashMap<String, T>> hashMapDict(Decoder<T> valueDecoder) {
+        return dict(valueDecoder, size -> new java.util.HashMap<>(capacity(size)));
+    }
+
+    /**
+     * Like {@link #dict(Decoder)}, but decodes into a {@link java.util.LinkedHashMap} sized for the members, which
+     * keeps the order of the members.
+     *
+     * @param valueDecoder
+     * @return
+     */
+    public static <T> Decoder<java.util.LinkedHashMap<String, T>> linkedHashMapDict(Decoder<T> valueDecoder) {
+        return dict(valueDecoder, size -> new java.util.LinkedHashMap<>(capacity(size)));
+    }
+
+    /**
+     * Like {@link #dict(Decoder)}, but the keys are parsed as {@code Long}s, e.g. for objects keyed by ids. Fails on
+     * the first key that isn't a whole number in the range of a {@code long}, written without a {@code +} sign or
+     * leading zeros (e.g. {@code "07"}), so that two keys never stand for the same number.
+     *
+     * @param valueDecoder
+     * @return
+     */
+    public static <T> Decoder<Map<Long, T>> longKeyDict(Decoder<T> valueDecoder) {
+        return PrimitiveDicts.longKeys(valueDecoder);
+    }
+
+    /**
+     * Like {@link #dict(Decoder)}, but the keys are parsed as {@code Integer}s. Fails on the first key that isn't a
+     * whole number in the range of an {@code int}, written like the keys of {@link #longKeyDict(Decoder)}.
+     *
+     * @param valueDecoder
+     * @return
+     */
+    public static <T> Decoder<Map<Integer, T>> intKeyDict(Decoder<T> valueDecoder) {
+        return PrimitiveDicts.intKeys(valueDecoder);
+    }
+
+    /**
+     * Decodes a {@link net.hamnaberg.json.Json.JObject} with {@code long} keys and numbers as values as a
+     * {@link LongDoubleMap}, without boxing the entries. Fails like {@code longKeyDict(Double)}.
+     */
+    public static Decoder<LongDoubleMap> longDoubleDict() {
+        return PrimitiveDicts.LONG_DOUBLES;
+    }
+
+    /**
+     * Decodes a {@link net.hamnaberg.json.Json.JObject} with {@code int} keys and numbers as values as an
+     * {@link IntLongMap}, without boxing the entries. Fails like {@code intKeyDict(Long)}.
+     */
+    public static Decoder<IntLongMap> intLongDict() {
+        return PrimitiveDicts.INT_LONGS;
+    }
+
+    /**
+     * Decodes a {@link net.hamnaberg.json.Json.JObject} of numbers as a {@link StringIntMap}, without boxing the
+     * values. Fails like {@code dict(Integer)}.
+     */
+    public static Decoder<StringIntMap> stringIntDict() {
+        return PrimitiveDicts.STRING_INTS;
+    }
+
+    /**
+     * Like {@link #dict(Decoder)}, but the keys are deduplicated with the shared {@link StringPool}.
+     *
+     * @param valueDecoder
+     * @return
+     */
+    public static <T> Decoder<Map<String, T>> internedDict(Decoder<T> valueDecoder) {
+        return internedDict(valueDecoder, StringPool.shared());
+    }
+
+    /**
+     * Like {@link #dict(Decoder)}, but the keys are deduplicated with a given {@link StringPool}, so that maps decoded
+     * from many objects with the same keys share the key strings.
+     *
+     * @param valueDecoder
+     * @param pool
+     * @return
+     */
+    public static <T> Decoder<Map<String, T>> internedDict(Decoder<T> valueDecoder, StringPool pool) {
+        return vavrDict(valueDecoder, pool::intern);
+    }
+
+    /**
+     * Like {@link #dict(Decoder)}, but decodes the values of large objects in parallel, on the common
+     * {@link java.util.concurrent.ForkJoinPool}. Objects of up to 512 members are decoded sequentially.
+     * <p>
+     * The result is the same as {@code dict(valueDecoder)}: if several values fail, the first one is reported.
+     *
+     * @param valueDecoder The decoder for the values, which must be safe to use from several threads
+     * @return
+     */
+    public static <T> Decoder<Map<String, T>> parDict(Decoder<T> valueDecoder) {
+        return parDict(valueDecoder, Parallel.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Like {@link #parDict(Decoder)}, with the number of members up to which objects are decoded sequentially. Larger
+     * objects are split in chunks of at most this many members.
+     *
+     * @param valueDecoder The decoder for the values, which must be safe to use from several threads
+     * @param threshold    The size of the chunks
+     * @return
+     */
+    public static <T> Decoder<Map<String, T>> parDict(Decoder<T> valueDecoder, int threshold) {
+        return Node.of(Shape.members(Shape.of(valueDecoder)), root -> JObject.decode(root)
+            .flatMap(obj -> Parallel.dict(obj, valueDecoder, threshold)))
+            .accepting(Kinds.OBJECT);
     }
 
     /**
@@ -302,15 +594,18 @@ public final class Decoders {
      * @return
      */
     public static <T> Decoder<T> index(int index, Decoder<T> inner) {
-        return JArray
-            .andThen(arr -> arr.get(index)
-                .map(v -> fromResult(inner.apply(v)))
-                .getOrElse(fail("missing")))
-            .mapError(err -> "at index " + index + ": " + err);
+        Function<Json.JValue, Either<DecodeError, T>> decoder = root -> JArray.decode(root)
+            .flatMap(arr -> ofOption(arr.get(index), MISSING))
+            .flatMap(inner::decode)
+            .mapLeft(err -> DecodeError.index(index, err));
+
+        // fails on anything but arrays, with the index in the message
+        return Node.of(Shape.index(index, Shape.of(inner)), decoder, Streaming.index(index, inner, decoder));
     }
 
     /**
-     * Traverses an object tree and applies a decoder at the leaf.
+     * Traverses an object tree and applies a decoder at the leaf. Like nested {@link #field(String, Decoder)}s, which
+     * are also collapsed into a single path.
      *
      * @param fields
      * @param inner
@@ -327,7 +622,8 @@ public final class Decoders {
      * @return
      */
     public static <T> Decoder<T> fromResult(Either<String, T> result) {
-        return t -> result;
+        Either<DecodeError, T> error = result.mapLeft(DecodeError::of);
+        return Node.of(Shape.NONE, t -> error);
     }
 
     /**
@@ -338,12 +634,198 @@ public final class Decoders {
      * @return
      */
     public static <T> Either<String, T> decodeString(String json, Decoder<T> decoder) {
-        return new JacksonStreamingParser().parse(json)
+        return Streaming.parse(json)
             .toEither()
             .mapLeft(Throwable::getMessage)
             .flatMap(decoder::apply);
     }
 
+    /**
+     * Decodes a json string with a given decoder without building the whole {@link net.hamnaberg.json.Json.JValue}
+     * first, see {@link #decodeParser(JsonParser, Decoder)}.
+     *
+     * @param json
+     * @param decoder
+     * @return
+     */
+    public static <T> Either<String, T> decodeStreaming(String json, Decoder<T> decoder) {
+        return Streaming.decode(f -> f.createParser(json), decoder).mapLeft(DecodeError::message);
+    }
+
+    /**
+     * Decodes UTF-8 (or UTF-16/32, detected from the first bytes) json with a given decoder, without building a
+     * {@link String} first, see {@link #decodeParser(JsonParser, Decoder)}.
+     *
+     * @param json
+     * @param decoder
+     * @return
+     */
+    public static <T> Either<String, T> decodeBytes(byte[] json, Decoder<T> decoder) {
+        return Streaming.decode(f -> f.createParser(json), decoder).mapLeft(DecodeError::message);
+    }
+
+    /**
+     * Decodes the remaining bytes of a buffer with a given decoder, see {@link #decodeBytes(byte[], Decoder)}. The
+     * position of the buffer isn't changed.
+     *
+     * @param json
+     * @param decoder
+     * @return
+     */
+    public static <T> Either<String, T> decodeByteBuffer(ByteBuffer json, Decoder<T> decoder) {
+        if (json.hasArray())
+            return Streaming.decode(f -> f.createParser(json.array(), json.arrayOffset() + json.position(), json.remaining()), decoder)
+                .mapLeft(DecodeError::message);
+
+        byte[] bytes = new byte[json.remaining()];
+        json.duplicate().get(bytes);
+        return decodeBytes(bytes, decoder);
+    }
+
+    /**
+     * Decodes the first json value of a stream with a given decoder, see {@link #decodeBytes(byte[], Decoder)}. The
+     * stream isn't closed.
+     *
+     * @param json
+     * @param decoder
+     * @return
+     */
+    public static <T> Either<String, T> decodeStream(InputStream json, Decoder<T> decoder) {
+        return Streaming.decode(f -> f.createParser(json), decoder).mapLeft(DecodeError::message);
+    }
+
+    /**
+     * Decodes the first json value of a reader with a given decoder, see {@link #decodeParser(JsonParser, Decoder)}.
+     * The reader isn't closed.
+     *
+     * @param json
+     * @param decoder
+     * @return
+     */
+    public static <T> Either<String, T> decodeReader(Reader json, Decoder<T> decoder) {
+        return Streaming.decode(f -> f.createParser(json), decoder).mapLeft(DecodeError::message);
+    }
+
+    /**
+     * Decodes many json strings with a given decoder, each like {@link #decodeStreaming(String, Decoder)}. Every
+     * document gets its own result, in the same order, so a document that fails doesn't affect the others.
+     *
+     * @param json
+     * @param decoder
+     * @return
+     */
+    public static <T> List<Either<String, T>> decodeAll(Iterable<String> json, Decoder<T> decoder) {
+        return Batch.strings(json, decoder, false);
+    }
+
+    /**
+     * Like {@link #decodeAll(Iterable, Decoder)}, but decodes large batches in parallel, on the common
+     * {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * @param json
+     * @param decoder The decoder, which must be safe to use from several threads
+     * @return
+     */
+    public static <T> List<Either<String, T>> parDecodeAll(Iterable<String> json, Decoder<T> decoder) {
+        return Batch.strings(json, decoder, true);
+    }
+
+    /**
+     * Decodes many UTF-8 json documents with a given decoder, each like {@link #decodeBytes(byte[], Decoder)}. Every
+     * document gets its own result, in the same order, so a document that fails doesn't affect the others.
+     *
+     * @param json
+     * @param decoder
+     * @return
+     */
+    public static <T> List<Either<String, T>> decodeAllBytes(Iterable<byte[]> json, Decoder<T> decoder) {
+        return Batch.bytes(json, decoder, false);
+    }
+
+    /**
+     * Like {@link #decodeAllBytes(Iterable, Decoder)}, but decodes large batches in parallel, on the common
+     * {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * @param json
+     * @param decoder The decoder, which must be safe to use from several threads
+     * @return
+     */
+    public static <T> List<Either<String, T>> parDecodeAllBytes(Iterable<byte[]> json, Decoder<T> decoder) {
+        return Batch.bytes(json, decoder, true);
+    }
+
+    /**
+     * Lazily decodes the elements of a json array one at a time, without reading the whole array, so arrays larger
+     * than the memory can be processed. Each element is only read when the returned stream gets to it and, like in
+     * {@link #decodeParser(JsonParser, Decoder)}, only the parts of it that the decoder reads are built.
+     * <p>
+     * Elements that fail are reported like in {@link #list(Decoder)}, e.g. {@code "array element #3: field 'a':
+     * missing"}, and don't stop the following elements from being decoded. If the input isn't an array or isn't
+     * valid json the stream ends with the error. The input stream isn't closed.
+     *
+     * @param json
+     * @param decoder
+     * @return
+     */
+    public static <T> Stream<Either<String, T>> streamArray(InputStream json, Decoder<T> decoder) {
+        ArrayElements<T> elements = new ArrayElements<>(json, decoder);
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(elements, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+            .onClose(elements::close);
+    }
+
+    /**
+     * Lazily decodes newline delimited json (one value per line, also known as NDJSON or JSON lines) with a given
+     * decoder. Errors are prefixed with the line number, e.g. {@code "line 3: field 'a': missing"}, and don't stop
+     * the following lines from being decoded. Blank lines are skipped. Lines are read as they are consumed, with a
+     * buffer that only grows to fit the longest line. The stream isn't closed.
+     *
+     * @param json
+     * @param decoder
+     * @return
+     */
+    public static <T> Stream<Either<String, T>> decodeLines(InputStream json, Decoder<T> decoder) {
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(new Lines<>(json, decoder), Spliterator.ORDERED | Spliterator.NONNULL),
+            false);
+    }
+
+    /**
+     * Lazily decodes a file of newline delimited json, see {@link #decodeLines(InputStream, Decoder)}. The file is
+     * closed when the returned stream is closed, so it should be used in a try-with-resources statement.
+     *
+     * @param path
+     * @param decoder
+     * @return
+     * @throws IOException if the file can't be opened
+     */
+    public static <T> Stream<Either<String, T>> decodeLines(Path path, Decoder<T> decoder) throws IOException {
+        InputStream json = Files.newInputStream(path);
+        return decodeLines(json, decoder).onClose(() -> {
+            try {
+                json.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Decodes the next json value of a Jackson {@link JsonParser} with a given decoder, or the current value if the
+     * parser is already positioned at one. {@link #field}, {@link #optionalField}, {@link #list}, {@link #dict},
+     * {@link #index}, {@link #at} and the simple decoders read straight from the token stream; other decoders only
+     * get the parts of the value they read, so an error message may show a value with some members left out.
+     * The parser is left at the last token of the value.
+     *
+     * @param parser
+     * @param decoder
+     * @return
+     */
+    public static <T> Either<String, T> decodeParser(JsonParser parser, Decoder<T> decoder) {
+        return Streaming.decode(parser, decoder).mapLeft(DecodeError::message);
+    }
+
     /**
      * Decodes a {@link net.hamnaberg.json.Json.JValue}
      *
@@ -356,19 +838,21 @@ public final class Decoders {
     }
 
     /**
-     * Decodes a json string with a given decoder, uses Jackson. Returns the result in a {@link Try}
+     * Decodes a json string with a given decoder, uses Jackson. Returns the result in a {@link Try}, which fails with a
+     * {@link DecodeException} if the decoder fails.
      *
      * @param json
      * @param decoder
      * @return
      */
     public static <T> Try<T> tryDecodeString(String json, Decoder<T> decoder) {
-        return new JacksonStreamingParser().parse(json)
+        return Streaming.parse(json)
             .flatMap(j -> tryDecodeValue(j, decoder));
     }
 
     /**
-     * Decodes a {@link net.hamnaberg.json.Json.JValue} with a given decoder. Returns the result in a {@link Try}
+     * Decodes a {@link net.hamnaberg.json.Json.JValue} with a given decoder. Returns the result in a {@link Try}, which
+     * fails with a {@link DecodeException} if the decoder fails.
      *
      * @param json
      * @param decoder
@@ -386,11 +870,31 @@ public final class Decoders {
      * @return
      */
     public static <T extends Enum<T>> Decoder<T> enumByName(Class<T> enumClass) {
-        List<T> enumValues = List.of(enumClass.getEnumConstants());
-        return json -> Decoders.String.apply(json)
-            .flatMap(s -> enumValues.find(ev -> ev.name().equals(s))
-                .map(Either::<String, T>right)
-                .getOrElse(Either.left("cannot parse " + json + " into a value of enum " + enumClass.getName())));
+        return Enums.byName(enumClass);
+    }
+
+    /**
+     * Decodes an enum by matching a string with the value name, ignoring case. An exact match wins over one that only
+     * differs in case.
+     *
+     * @param enumClass
+     * @return
+     */
+    public static <T extends Enum<T>> Decoder<T> enumByNameIgnoreCase(Class<T> enumClass) {
+        return Enums.byNameIgnoreCase(enumClass);
+    }
+
+    /**
+     * Decodes an enum by matching a string with a name given to each value, e.g. {@code enumByName(Status.class,
+     * s -> s.name().toLowerCase())}.
+     *
+     * @param enumClass
+     * @param name      The name of each value, must be unique
+     * @return
+     * @throws IllegalArgumentException if two values have the same name
+     */
+    public static <T extends Enum<T>> Decoder<T> enumByName(Class<T> enumClass, Function<? super T, String> name) {
+        return Enums.byName(enumClass, name);
     }
 
     /**
@@ -431,21 +935,44 @@ public final class Decoders {
     }
 
     /**
-     * Builds a recursive decoder.
+     * Builds a recursive decoder. The given function is called once, with a decoder that stands for the one being
+     * built, so the decoder isn't rebuilt for every nested value.
      *
      * @param recursive
      * @return
      */
     public static <T> Decoder<T> recursive(Function<Decoder<T>, Decoder<T>> recursive) {
-        // with Java lambdas we can't use recursive definitions like in Elm, so implementing lazy doesn't make much sense
-        // we instead provide a solution for the special case of recursive decoders
+        return Recursive.of(recursive);
+    }
 
-        return new Decoder<T>() {
-            @Override
-            public Either<String, T> apply(Json.JValue value) {
-                return recursive.apply(this).apply(value);
-            }
-        };
+    /**
+     * Limits how deeply values may nest, so that a decoder such as {@code recursive(...)} fails on deeply nested
+     * values instead of overflowing the stack. Values that nest arrays and objects more than 512 deep fail with
+     * {@code "too deeply nested"} before anything in them is decoded, counting the whole value, including fields and
+     * elements the decoder doesn't read. Values within the limit are still decoded with recursive calls. How deep a
+     * value is gets checked without recursion: by walking the tree, or as the tokens are read when decoding from a
+     * token stream (see {@link #decodeStreaming(String, Decoder)}).
+     * <p>
+     * Note that {@link #decodeString(String, Decoder)} builds the json tree before decoding, which nests as deep as
+     * the value.
+     *
+     * @param decoder
+     * @return
+     */
+    public static <T> Decoder<T> stackSafe(Decoder<T> decoder) {
+        return Recursive.stackSafe(decoder, Recursive.MAX_DEPTH);
+    }
+
+    /**
+     * Like {@link #stackSafe(Decoder)}, with how deeply values may nest arrays and objects. Values within the limit
+     * are decoded on the calling thread, which must have a stack large enough for them.
+     *
+     * @param decoder
+     * @param maxDepth The largest number of nested arrays and objects
+     * @return
+     */
+    public static <T> Decoder<T> stackSafe(Decoder<T> decoder, int maxDepth) {
+        return Recursive.stackSafe(decoder, maxDepth);
     }
 
     /**
@@ -475,9 +1002,105 @@ public final class Decoders {
         return debug(j -> System.out.println(j.spaces2()), dec);
     }
 
-    private static <T> Either<String, T> is(Json.JValue val, Predicate<Json.JValue> predicate, Function<Json.JValue, Option<T>> narrow, String type) {
+    private static <T> Decoder<T> scalar(Function<Json.JValue, Either<DecodeError, T>> decoder, Predicate<JsonToken> accepts, int kinds, Streaming.Reader<T> read) {
+        return Node.of(Shape.SCALAR, decoder, p -> accepts.test(p.getCurrentToken())
+            ? read.read(p)
+            : Streaming.fallback(p, decoder))
+            .accepting(kinds);
+    }
+
+    /**
+     * Like {@code oneOf(inner.map(present), succeed(otherwise))}, decoding once.
+     */
+    private static <T, U> Decoder<U> option(Decoder<T> inner, Function<T, U> present, U otherwise) {
+        Either<DecodeError, U> fallback = right(otherwise);
+        Function<Either<DecodeError, T>, Either<DecodeError, U>> recover = result -> result.isRight()
+            ? right(present.apply(result.get()))
+            : fallback;
+
+        return Node.of(Shape.of(inner), val -> recover.apply(inner.decode(val)), p -> recover.apply(Streaming.read(p, inner)));
+    }
+
+    /**
+     * Like {@code oneOf(inner.map(present), nullValue(ifNull))}, but null only goes through the inner decoder if it
+     * may accept it. From a token stream, an array or object that the inner decoder may accept is read by the inner
+     * decoder without building it, and fails like the inner decoder since it can't be built for the message.
+     */
+    private static <T, U> Decoder<U> nullable(Decoder<T> inner, Function<T, U> present, U ifNull) {
+        Either<DecodeError, U> nullResult = right(ifNull);
+        int innerKinds = Kinds.of(inner);
+        boolean innerAcceptsNull = (innerKinds & Kinds.NULL) != 0;
+
+        BiFunction<Either<DecodeError, T>, Json.JValue, Either<DecodeError, U>> decoded = (result, val) -> {
+            if (result.isRight())
+                return right(present.apply(result.get()));
+            if (val.isNull())
+                return nullResult;
+            return left(DecodeError.oneOf(List.of(result.getLeft(), DecodeError.expected("JNull", val))));
+        };
+
+        Function<Json.JValue, Either<DecodeError, U>> decoder = val -> !innerAcceptsNull && val.isNull()
+            ? nullResult
+            : decoded.apply(inner.decode(val), val);
+
+        Streaming.Reader<U> reader = p -> {
+            JsonToken token = p.getCurrentToken();
+            if (!innerAcceptsNull && token == JsonToken.VALUE_NULL)
+                return nullResult;
+
+            if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+                if ((innerKinds & (token == JsonToken.START_ARRAY ? Kinds.ARRAY : Kinds.OBJECT)) == 0)
+                    return Streaming.fallback(p, decoder);
+
+                Either<DecodeError, T> result = Streaming.read(p, inner);
+                return result.isRight()
+                    ? right(present.apply(result.get()))
+                    : left(result.getLeft());
+            }
+
+            // a scalar is still the current token once it's read, so it can be built for the failure
+            Either<DecodeError, T> result = Streaming.read(p, inner);
+            return result.isRight()
+                ? right(present.apply(result.get()))
+                : decoded.apply(result, Streaming.materialize(p, Shape.ALL));
+        };
+
+        return Node.of(Shape.of(inner).union(Shape.SCALAR), decoder, reader)
+            .accepting(innerKinds | Kinds.NULL);
+    }
+
+    private static <T> Decoder<Map<String, T>> vavrDict(Decoder<T> valueDecoder, UnaryOperator<String> keys) {
+        Function<Json.JValue, Either<DecodeError, Map<String, T>>> decoder = root -> JObject.decode(root)
+            .flatMap(obj -> {
+                // a single pass that stops at the first failure
+                ArrayList<Tuple2<String, T>> entries = new ArrayList<>(obj.size());
+                for (Tuple2<String, Json.JValue> member : obj.mapToList(Tuple::of)) {
+                    Either<DecodeError, T> value = valueDecoder.decode(member._2);
+                    if (value.isLeft())
+                        return left(DecodeError.key(member._1, value.getLeft()));
+                    entries.add(Tuple.of(keys.apply(member._1), value.get()));
+                }
+                return right(HashMap.ofEntries(entries));
+            });
+
+        return Node.of(Shape.members(Shape.of(valueDecoder)), decoder, Streaming.dict(valueDecoder, keys, decoder))
+            .accepting(Kinds.OBJECT);
+    }
+
+    /**
+     * The capacity of a hash map that holds the given number of entries without resizing.
+     */
+    private static int capacity(int size) {
+        return size < 3 ? size + 1 : (int) (size / 0.75f + 1);
+    }
+
+    private static <T> Decoder<T> number(Function<BigDecimal, Either<DecodeError, T>> convert, Streaming.Reader<T> read) {
+        return scalar(v -> BigDecimal.decode(v).flatMap(convert), JsonToken::isNumeric, Kinds.NUMBER, read);
+    }
+
+    private static <T> Either<DecodeError, T> is(Json.JValue val, Predicate<Json.JValue> predicate, Function<Json.JValue, Option<T>> narrow, String type) {
         return predicate.test(val)
             ? right(narrow.apply(val).get())
-            : left("expected " + type + ", got " + val.toString());
+            : left(DecodeError.expected(type, val));
     }
 }
@@ -1,6 +1,5 @@
 package com.fredhonorio.json_decoder;
 
-import io.vavr.CheckedFunction0;
 import io.vavr.collection.List;
 import io.vavr.collection.Seq;
 import io.vavr.control.Either;
@@ -50,20 +49,8 @@ public final class EitherExtra {
     // @formatter:on
 
     /**
-     * Attempts a computation that can fail, returns either the value on the right or the contents of
-     * {@link Throwable#getMessage()} on the left.
-     *
-     * @param f
-     * @param <U>
-     * @return
-     */
-    static <U> Either<String, U> tryEither(CheckedFunction0<U> f) {
-        return Try.of(f).toEither().mapLeft(Throwable::getMessage);
-    }
-
-    /**
-     * Transforms an Either&lt;String, T&gt; into a {@link Try}. The exception (if applicable) is a {@link IllegalArgumentException}
-     * with the right side as the message.
+     * Transforms an Either&lt;String, T&gt; into a {@link Try}. The exception (if applicable) is a {@link DecodeException}
+     * with the left side as the message.
      *
      * @param e
      * @param <T>
@@ -71,7 +58,7 @@ public final class EitherExtra {
      */
     static <T> Try<T> toTry(Either<String, T> e) {
         return e.fold(
-            fail -> Try.failure(new IllegalArgumentException(fail)),
+            fail -> Try.failure(new DecodeException(fail)),
             Try::success
         );
     }
@@ -0,0 +1,90 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonToken;
+import io.vavr.control.Either;
+import net.hamnaberg.json.Json;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import static io.vavr.control.Either.left;
+import static io.vavr.control.Either.right;
+
+/**
+ * Decodes enums by looking their names up in a hash table built once. The decoders for the names of the constants
+ * are cached per enum class, so they can be created for every use.
+ */
+final class Enums {
+    private Enums() {
+    }
+
+    private static final ClassValue<Decoder<?>> BY_NAME = new ClassValue<Decoder<?>>() {
+        @Override
+        protected Decoder<?> computeValue(Class<?> enumClass) {
+            Map<String, Object> names = new HashMap<>();
+            for (Object constant : enumClass.getEnumConstants())
+                names.put(((Enum<?>) constant).name(), constant);
+            return decoder(enumClass, names::get);
+        }
+    };
+
+    private static final ClassValue<Decoder<?>> BY_NAME_IGNORE_CASE = new ClassValue<Decoder<?>>() {
+        @Override
+        protected Decoder<?> computeValue(Class<?> enumClass) {
+            Map<String, Object> names = new HashMap<>();
+            Map<String, Object> lowerCase = new HashMap<>();
+            for (Object constant : enumClass.getEnumConstants()) {
+                String name = ((Enum<?>) constant).name();
+                names.put(name, constant);
+                // constants that only differ in case are told apart by an exact match, otherwise the first one wins
+                lowerCase.putIfAbsent(name.toLowerCase(Locale.ROOT), constant);
+            }
+            return decoder(enumClass, s -> {
+                Object constant = names.get(s);
+                return constant != null ? constant : lowerCase.get(s.toLowerCase(Locale.ROOT));
+            });
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    static <T extends Enum<T>> Decoder<T> byName(Class<T> enumClass) {
+        return (Decoder<T>) BY_NAME.get(enumClass);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Enum<T>> Decoder<T> byNameIgnoreCase(Class<T> enumClass) {
+        return (Decoder<T>) BY_NAME_IGNORE_CASE.get(enumClass);
+    }
+
+    static <T extends Enum<T>> Decoder<T> byName(Class<T> enumClass, Function<? super T, String> name) {
+        Map<String, T> names = new HashMap<>();
+        for (T constant : enumClass.getEnumConstants()) {
+            T previous = names.put(name.apply(constant), constant);
+            if (previous != null)
+                throw new IllegalArgumentException(
+                    previous + " and " + constant + " of enum " + enumClass.getName() + " have the same name: " + name.apply(constant));
+        }
+        return decoder(enumClass, names::get);
+    }
+
+    private static <T> Decoder<T> decoder(Class<?> enumClass, Function<String, T> lookup) {
+        Function<Json.JValue, Either<DecodeError, T>> tree = json -> Decoders.String.decode(json)
+            .flatMap(s -> constant(enumClass, lookup.apply(s), json));
+
+        return Node.of(Shape.SCALAR, tree, p -> {
+            if (p.getCurrentToken() != JsonToken.VALUE_STRING)
+                return Streaming.fallback(p, tree);
+
+            String text = p.getText();
+            return constant(enumClass, lookup.apply(text), Json.jString(text));
+        }).accepting(Kinds.STRING);
+    }
+
+    private static <T> Either<DecodeError, T> constant(Class<?> enumClass, T constant, Json.JValue json) {
+        return constant != null
+            ? right(constant)
+            : left(DecodeError.lazy(() -> "cannot parse " + json + " into a value of enum " + enumClass.getName()));
+    }
+}
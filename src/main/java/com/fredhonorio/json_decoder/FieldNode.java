@@ -0,0 +1,80 @@
+package com.fredhonorio.json_decoder;
+
+import io.vavr.control.Either;
+import net.hamnaberg.json.Json;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A decoder that reads a single field of an object, like {@link Decoders#field(String, Decoder)} and
+ * {@link Decoders#optionalField(String, Decoder)}. Knowing the key lets {@link Fields} decode several fields of the
+ * same object at once.
+ */
+final class FieldNode<T> extends Node<T> {
+    final String key;
+
+    /**
+     * Decodes the value of the field, its failures already say which field failed.
+     */
+    final Decoder<T> member;
+
+    /**
+     * The result when the field is missing.
+     */
+    final Supplier<Either<DecodeError, T>> missing;
+
+    /**
+     * The result when the value isn't an object, given the type error.
+     */
+    final Function<DecodeError, Either<DecodeError, T>> notObject;
+
+    private FieldNode(String key, Decoder<T> member, Supplier<Either<DecodeError, T>> missing, Function<DecodeError, Either<DecodeError, T>> notObject, Function<Json.JValue, Either<DecodeError, T>> tree, int kinds) {
+        super(Shape.field(key, Shape.of(member)), tree, Streaming.field(key, member, missing, tree), kinds);
+        this.key = key;
+        this.member = member;
+        this.missing = missing;
+        this.notObject = notObject;
+    }
+
+    static <T> FieldNode<T> of(String key, Decoder<T> member, Supplier<Either<DecodeError, T>> missing) {
+        // fails on anything but objects, even when the field is optional
+        return of(key, member, missing, Either::left, Kinds.OBJECT);
+    }
+
+    private static <T> FieldNode<T> of(String key, Decoder<T> member, Supplier<Either<DecodeError, T>> missing, Function<DecodeError, Either<DecodeError, T>> notObject, int kinds) {
+        Function<Json.JValue, Either<DecodeError, T>> tree = root -> Decoders.JObject.decode(root)
+            .fold(
+                notObject,
+                obj -> obj.get(key)
+                    .map(member::decode)
+                    .getOrElse(missing));
+
+        return new FieldNode<>(key, member, missing, notObject, tree, kinds);
+    }
+
+    /**
+     * Transforms every outcome of this decoder, keeping it a field decoder, see
+     * {@link Node#transform(Decoder, Function, int)}.
+     */
+    <U> FieldNode<U> transform(Function<Either<DecodeError, T>, Either<DecodeError, U>> f, int kinds) {
+        return of(
+            key,
+            Node.transform(member, f),
+            () -> f.apply(missing.get()),
+            err -> f.apply(notObject.apply(err)),
+            kinds);
+    }
+
+    /**
+     * Applies a function to the value of this decoder, keeping it a field decoder.
+     */
+    <U> FieldNode<U> mapValue(Function<T, U> f) {
+        return of(
+            key,
+            MappedNode.of(member, f),
+            () -> missing.get().map(f),
+            err -> notObject.apply(err).map(f),
+            kinds);
+    }
+}
@@ -0,0 +1,188 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import net.hamnaberg.json.Json;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static io.vavr.control.Either.left;
+import static io.vavr.control.Either.right;
+
+/**
+ * Decodes several fields of the same object at once, which is what {@link Decoder#map2} and friends usually do.
+ * The object is checked once and each field is looked up with a key known in advance, when decoding from a token
+ * stream the members are walked once and dispatched to their fields through a table built when the decoder is
+ * created. The decoded values are put in slots, in the order of the decoders, and handed to a function once they are
+ * all decoded.
+ * <p>
+ * The result is the same as applying the field decoders one after the other: the first failure, in the order of the
+ * decoders, wins.
+ */
+final class Fields<T> implements Function<Json.JValue, Either<DecodeError, T>>, Streaming.Reader<T> {
+    private final FieldNode<?>[] fields;
+    private final Map<String, Member> members;
+    private final Function<Object[], T> build;
+
+    /**
+     * What decodes the value of each field. The value of a {@link Decoders#field(String, Decoder)} is decoded
+     * straight with the decoder given to it, whose failures don't say which field failed yet, see
+     * {@link #value(int, Either)}.
+     */
+    private final Decoder<?>[] values;
+    private final Function<Json.JValue, ? extends Either<DecodeError, ?>>[] trees;
+    private final Streaming.Reader<?>[] readers;
+    private final boolean[] bare;
+
+    private Fields(FieldNode<?>[] fields, Function<Object[], T> build) {
+        this.fields = fields;
+        this.build = build;
+
+        HashMap<String, Member> members = new HashMap<>();
+        this.values = new Decoder<?>[fields.length];
+        this.trees = functions(fields.length);
+        this.readers = new Streaming.Reader<?>[fields.length];
+        this.bare = new boolean[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            FieldNode<?> field = fields[i];
+            members.merge(field.key, new Member(i, Shape.of(field.member)), Member::union);
+
+            Decoder<?> value = field.member instanceof PathNode
+                ? ((PathNode<?>) field.member).fieldValue()
+                : null;
+            bare[i] = value != null;
+            values[i] = bare[i] ? value : field.member;
+            trees[i] = Node.functionOf(values[i]);
+            readers[i] = Node.readerOf(values[i]);
+        }
+        this.members = members;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Json.JValue, ? extends Either<DecodeError, ?>>[] functions(int length) {
+        return new Function[length];
+    }
+
+    /**
+     * Builds a decoder that reads the given fields in one go, returns {@code null} if some decoder doesn't read a
+     * single field.
+     */
+    static <T> Decoder<T> compile(Function<Object[], T> build, Decoder<?>... decoders) {
+        FieldNode<?>[] fields = new FieldNode<?>[decoders.length];
+        for (int i = 0; i < decoders.length; i++) {
+            if (!(decoders[i] instanceof FieldNode))
+                return null;
+            fields[i] = (FieldNode<?>) decoders[i];
+        }
+
+        Fields<T> compiled = new Fields<>(fields, build);
+        return Node.of(Shape.union(decoders), compiled, compiled);
+    }
+
+    @Override
+    public Either<DecodeError, T> apply(Json.JValue value) {
+        Option<Json.JObject> obj = value.asJsonObject();
+        if (obj.isEmpty())
+            return notObject(value);
+
+        Object[] slots = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            FieldNode<?> field = fields[i];
+            Option<Json.JValue> member = obj.get().get(field.key);
+            Either<DecodeError, ?> result = member.isDefined()
+                ? value(i, trees[i].apply(member.get()))
+                : field.missing.get();
+
+            if (result.isLeft())
+                return left(result.getLeft());
+            slots[i] = result.get();
+        }
+        return right(build.apply(slots));
+    }
+
+    @Override
+    public Either<DecodeError, T> read(JsonParser p) throws IOException {
+        if (p.getCurrentToken() != JsonToken.START_OBJECT)
+            return Streaming.fallback(p, this);
+
+        // the members come in any order, so every field is decoded before looking for failures
+        Either<?, ?>[] results = new Either<?, ?>[fields.length];
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            Member member = members.get(p.getCurrentName());
+            p.nextToken();
+            if (member == null) {
+                p.skipChildren();
+            } else if (member.slots.length == 1) {
+                int slot = member.slots[0];
+                results[slot] = value(slot, readers[slot] != null ? readers[slot].read(p) : Streaming.read(p, values[slot]));
+            } else {
+                // several decoders read this field, build what they need once
+                Json.JValue value = Streaming.materialize(p, member.shape);
+                for (int slot : member.slots)
+                    results[slot] = fields[slot].member.decode(value);
+            }
+        }
+
+        Object[] slots = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            Either<?, ?> result = results[i] != null
+                ? results[i]
+                : fields[i].missing.get();
+
+            if (result.isLeft())
+                return left((DecodeError) result.getLeft());
+            slots[i] = result.get();
+        }
+        return right(build.apply(slots));
+    }
+
+    /**
+     * The result of decoding the value of a field.
+     */
+    private Either<DecodeError, ?> value(int slot, Either<DecodeError, ?> result) {
+        return bare[slot] && result.isLeft()
+            ? left(DecodeError.field(fields[slot].key, result.getLeft()))
+            : result;
+    }
+
+    private Either<DecodeError, T> notObject(Json.JValue value) {
+        DecodeError error = DecodeError.expected("JObject", value);
+        Object[] slots = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            Either<DecodeError, ?> result = fields[i].notObject.apply(error);
+            if (result.isLeft())
+                return left(result.getLeft());
+            slots[i] = result.get();
+        }
+        return right(build.apply(slots));
+    }
+
+    /**
+     * The slots that read an object member, and what they read of it.
+     */
+    private static final class Member {
+        final int[] slots;
+        final Shape shape;
+
+        Member(int slot, Shape shape) {
+            this(new int[]{slot}, shape);
+        }
+
+        private Member(int[] slots, Shape shape) {
+            this.slots = slots;
+            this.shape = shape;
+        }
+
+        Member union(Member other) {
+            int[] slots = Arrays.copyOf(this.slots, this.slots.length + other.slots.length);
+            System.arraycopy(other.slots, 0, slots, this.slots.length, other.slots.length);
+            return new Member(slots, shape.union(other.shape));
+        }
+    }
+}
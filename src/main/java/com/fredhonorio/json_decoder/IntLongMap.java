@@ -0,0 +1,167 @@
+package com.fredhonorio.json_decoder;
+
+/**
+ * An immutable map from {@code int} to {@code long} that stores keys and values in primitive arrays, without boxing,
+ * as decoded by {@link Decoders#intLongDict()} from objects like {@code {"7": 1500000000000}}. Entries are kept in an open
+ * addressing table with linear probing, at most half full.
+ */
+public final class IntLongMap {
+    // 0 marks free slots, so the entry for the key 0 is kept apart
+    private final int[] keys;
+    private final long[] values;
+    private final int size;
+    private final boolean hasZero;
+    private final long zeroValue;
+
+    private IntLongMap(Builder builder) {
+        this.keys = builder.keys;
+        this.values = builder.values;
+        this.size = builder.size;
+        this.hasZero = builder.hasZero;
+        this.zeroValue = builder.zeroValue;
+    }
+
+    /**
+     * Receives the entries of a map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, long value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZero : keys[slot(keys, key)] != 0;
+    }
+
+    /**
+     * The value for a key, or {@code defaultValue} if there's none.
+     */
+    public long getOrDefault(int key, long defaultValue) {
+        if (key == 0)
+            return hasZero ? zeroValue : defaultValue;
+
+        int slot = slot(keys, key);
+        return keys[slot] != 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Calls a function with each entry, in no particular order.
+     */
+    public void forEach(EntryConsumer f) {
+        if (hasZero)
+            f.accept(0, zeroValue);
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != 0)
+                f.accept(keys[i], values[i]);
+    }
+
+    /**
+     * The slot of a key, or the free slot where it would go.
+     */
+    private static int slot(int[] keys, int key) {
+        int mask = keys.length - 1;
+        int slot = OpenAddressing.hash(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * Fills a map while decoding, the map only gets the entries once they're all in.
+     */
+    static final class Builder {
+        private int[] keys;
+        private long[] values;
+        private int size;
+        private boolean hasZero;
+        private long zeroValue;
+
+        Builder(int expectedSize) {
+            int capacity = OpenAddressing.capacity(expectedSize);
+            keys = new int[capacity];
+            values = new long[capacity];
+        }
+
+        /**
+         * Adds or replaces an entry.
+         */
+        void put(int key, long value) {
+            if (key == 0) {
+                if (!hasZero)
+                    size++;
+                hasZero = true;
+                zeroValue = value;
+                return;
+            }
+
+            int slot = slot(keys, key);
+            if (keys[slot] == 0) {
+                if (OpenAddressing.isFull(size + 1, keys.length)) {
+                    grow();
+                    slot = slot(keys, key);
+                }
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] = value;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new long[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slot(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        IntLongMap build() {
+            return new IntLongMap(this);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IntLongMap)) return false;
+        IntLongMap other = (IntLongMap) o;
+        if (size != other.size) return false;
+        if (hasZero && (!other.hasZero || Long.compare(zeroValue, other.zeroValue) != 0)) return false;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                int slot = slot(other.keys, keys[i]);
+                if (other.keys[slot] == 0 || Long.compare(values[i], other.values[slot]) != 0)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // like java.util.Map, independent of the order of the entries
+        int[] h = {0};
+        forEach((k, v) -> h[0] += Integer.hashCode(k) ^ Long.hashCode(v));
+        return h[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.fredhonorio.json_decoder;
+
+import net.hamnaberg.json.Json;
+
+/**
+ * The kinds of json values, as bits of a set. Decoders know the kinds of values they can succeed on. Those that
+ * succeed on a single kind fail on the others like the decoder for that kind does, e.g.
+ * {@code "expected JArray, got ..."}, so {@link Decoders#oneOf(io.vavr.collection.List)} can skip them without
+ * running them.
+ */
+final class Kinds {
+    private Kinds() {
+    }
+
+    static final int OBJECT = 1;
+    static final int ARRAY = 1 << 1;
+    static final int STRING = 1 << 2;
+    static final int NUMBER = 1 << 3;
+    static final int BOOLEAN = 1 << 4;
+    static final int NULL = 1 << 5;
+
+    static final int ANY = OBJECT | ARRAY | STRING | NUMBER | BOOLEAN | NULL;
+
+    static int of(Json.JValue value) {
+        if (value.isObject())
+            return OBJECT;
+        if (value.isArray())
+            return ARRAY;
+        if (value.isString())
+            return STRING;
+        if (value.isNumber())
+            return NUMBER;
+        if (value.isBoolean())
+            return BOOLEAN;
+        return NULL;
+    }
+
+    /**
+     * The kinds of values a decoder may succeed on, every kind for decoders that aren't built by this library.
+     */
+    static int of(Decoder<?> decoder) {
+        return decoder instanceof Node
+            ? ((Node<?>) decoder).kinds
+            : ANY;
+    }
+
+    /**
+     * Whether the given kinds are a single kind.
+     */
+    static boolean single(int kinds) {
+        return Integer.bitCount(kinds) == 1;
+    }
+
+    /**
+     * How a decoder that only succeeds on the given kind fails on a value of another kind.
+     */
+    static DecodeError mismatch(int kind, Json.JValue value) {
+        return DecodeError.expected(type(kind), value);
+    }
+
+    private static String type(int kind) {
+        switch (kind) {
+            case OBJECT:
+                return "JObject";
+            case ARRAY:
+                return "JArray";
+            case STRING:
+                return "String";
+            case NUMBER:
+                return "BigDecimal";
+            case BOOLEAN:
+                return "Boolean";
+            default:
+                return "JNull";
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import io.vavr.control.Either;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static io.vavr.control.Either.left;
+
+/**
+ * Decodes newline delimited json (one value per line) from a stream, one line at a time. Lines are read into a single
+ * buffer that only grows to fit the longest line, and parsed from the bytes with the shared factory. Blank lines are
+ * skipped, but still counted in the line numbers of errors.
+ */
+final class Lines<T> implements Iterator<Either<String, T>> {
+    private static final int INITIAL_CAPACITY = 8192;
+
+    private final InputStream input;
+    private final Decoder<T> decoder;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    // the unread bytes are [start, end)
+    private int start = 0;
+    private int end = 0;
+    private boolean eof = false;
+    private int lineNumber = 0;
+
+    private Either<String, T> next;
+
+    Lines(InputStream input, Decoder<T> decoder) {
+        this.input = input;
+        this.decoder = decoder;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null)
+            return true;
+
+        try {
+            next = advance();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return next != null;
+    }
+
+    @Override
+    public Either<String, T> next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        Either<String, T> result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Decodes the next line that isn't blank, {@code null} at the end of the input.
+     */
+    private Either<String, T> advance() throws IOException {
+        int scan = start;
+        while (true) {
+            int newline = indexOf('\n', scan, end);
+            if (newline >= 0 || (eof && start < end)) {
+                int lineStart = start;
+                int lineEnd = newline >= 0 ? newline : end;
+                start = newline >= 0 ? newline + 1 : end;
+                scan = start;
+                lineNumber++;
+
+                if (!isBlank(lineStart, lineEnd))
+                    return decode(lineStart, lineEnd);
+            } else if (eof) {
+                return null;
+            } else {
+                int scanned = end - start;
+                fill();
+                scan = start + scanned;
+            }
+        }
+    }
+
+    private Either<String, T> decode(int from, int to) {
+        Either<DecodeError, T> result;
+        try (JsonParser parser = Streaming.FACTORY.createParser(buffer, from, to - from)) {
+            result = Streaming.decode(parser, decoder);
+            if (result.isRight() && parser.nextToken() != null)
+                result = left(DecodeError.of("unexpected content after the value"));
+        } catch (IOException e) {
+            result = left(DecodeError.of(e.getMessage()));
+        }
+
+        int line = lineNumber;
+        return result.mapLeft(err -> "line " + line + ": " + err.message());
+    }
+
+    /**
+     * Reads more of the input, moving the unread bytes to the start of the buffer and growing it if it's full.
+     */
+    private void fill() throws IOException {
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+        if (end == buffer.length)
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+
+        int read = input.read(buffer, end, buffer.length - end);
+        if (read < 0)
+            eof = true;
+        else
+            end += read;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++)
+            if (buffer[i] == c)
+                return i;
+        return -1;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buffer[i];
+            if (b != ' ' && b != '\t' && b != '\r')
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+package com.fredhonorio.json_decoder;
+
+import java.util.function.Function;
+
+/**
+ * A decoder that applies a function to the value decoded by another, like {@link Decoder#map(Function)}. Knowing the
+ * function lets a chain of maps be merged into one when it's built: {@code d.map(f).map(g)} decodes with {@code d}
+ * and applies {@code f} and then {@code g}, building a single result.
+ * <p>
+ * A map of a {@link FieldNode} is pushed into the value of the field, so that it's still a field decoder.
+ */
+final class MappedNode<S, T> extends Node<T> {
+    final Decoder<S> source;
+    final Function<S, T> f;
+
+    private MappedNode(Decoder<S> source, Function<S, T> f, Streaming.Reader<S> reader) {
+        super(
+            Shape.of(source),
+            x -> source.decode(x).map(f),
+            reader == null ? null : p -> reader.read(p).map(f),
+            Kinds.of(source));
+        this.source = source;
+        this.f = f;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S, T> Node<T> of(Decoder<S> source, Function<S, T> f) {
+        if (source instanceof MappedNode)
+            return fuse((MappedNode<?, S>) source, f);
+        if (source instanceof FieldNode)
+            return ((FieldNode<S>) source).mapValue(f);
+        return new MappedNode<>(source, f, Node.readerOf(source));
+    }
+
+    private static <R, S, T> MappedNode<R, T> fuse(MappedNode<R, S> mapped, Function<S, T> f) {
+        return new MappedNode<>(mapped.source, mapped.f.andThen(f), Node.readerOf(mapped.source));
+    }
+}
@@ -0,0 +1,101 @@
+package com.fredhonorio.json_decoder;
+
+import io.vavr.control.Either;
+import net.hamnaberg.json.Json;
+
+import java.util.function.Function;
+
+/**
+ * A {@link Decoder} built by this library. Besides decoding a {@link net.hamnaberg.json.Json.JValue} it knows which
+ * parts of the value it reads and, optionally, how to decode straight from a token stream. Failures are kept as
+ * {@link DecodeError}s and only turned into messages by {@link #apply(Json.JValue)}.
+ * <p>
+ * A node may also know that it fails on every value that isn't of some {@link Kinds}. If it's a single kind, it fails
+ * with the error of {@link Kinds#mismatch(int, Json.JValue)}.
+ */
+class Node<T> implements Decoder<T> {
+    final Shape shape;
+    final Streaming.Reader<T> reader;
+    final int kinds;
+    private final Function<Json.JValue, Either<DecodeError, T>> decoder;
+
+    Node(Shape shape, Function<Json.JValue, Either<DecodeError, T>> decoder, Streaming.Reader<T> reader) {
+        this(shape, decoder, reader, Kinds.ANY);
+    }
+
+    Node(Shape shape, Function<Json.JValue, Either<DecodeError, T>> decoder, Streaming.Reader<T> reader, int kinds) {
+        this.shape = shape;
+        this.decoder = decoder;
+        this.reader = reader;
+        this.kinds = kinds;
+    }
+
+    @Override
+    public Either<String, T> apply(Json.JValue value) {
+        return decoder.apply(value).mapLeft(DecodeError::message);
+    }
+
+    @Override
+    public Either<DecodeError, T> decode(Json.JValue value) {
+        return decoder.apply(value);
+    }
+
+    static <T> Node<T> of(Shape shape, Function<Json.JValue, Either<DecodeError, T>> decoder) {
+        return new Node<>(shape, decoder, null);
+    }
+
+    static <T> Node<T> of(Shape shape, Function<Json.JValue, Either<DecodeError, T>> decoder, Streaming.Reader<T> reader) {
+        return new Node<>(shape, decoder, reader);
+    }
+
+    /**
+     * The same decoder, known to fail on values that aren't of the given kinds, like {@link Kinds#mismatch} says if
+     * it's a single kind.
+     */
+    Node<T> accepting(int kinds) {
+        return new Node<>(shape, decoder, reader, kinds);
+    }
+
+    /**
+     * The reader of a decoder, {@code null} if it can only decode a {@link net.hamnaberg.json.Json.JValue}.
+     */
+    static <T> Streaming.Reader<T> readerOf(Decoder<T> decoder) {
+        return decoder instanceof Node
+            ? ((Node<T>) decoder).reader
+            : null;
+    }
+
+    /**
+     * The function that decodes a {@link net.hamnaberg.json.Json.JValue} for a decoder, calling it skips a call
+     * through the decoder.
+     */
+    static <T> Function<Json.JValue, Either<DecodeError, T>> functionOf(Decoder<T> decoder) {
+        return decoder instanceof Node
+            ? ((Node<T>) decoder).decoder
+            : decoder::decode;
+    }
+
+    /**
+     * Builds a decoder that transforms the result of another, reading the same parts of the value. The transformation
+     * must keep failures as they are.
+     */
+    static <T, U> Node<U> transform(Decoder<T> decoder, Function<Either<DecodeError, T>, Either<DecodeError, U>> f) {
+        return transform(decoder, f, Kinds.of(decoder));
+    }
+
+    /**
+     * Like {@link #transform(Decoder, Function)}, with the kinds of values the result may succeed on. A transformation
+     * that changes failures must give {@link Kinds#ANY}, since failures on other kinds are no longer the usual ones.
+     */
+    static <T, U> Node<U> transform(Decoder<T> decoder, Function<Either<DecodeError, T>, Either<DecodeError, U>> f, int kinds) {
+        if (decoder instanceof FieldNode)
+            return ((FieldNode<T>) decoder).transform(f, kinds);
+
+        Streaming.Reader<T> reader = readerOf(decoder);
+        return new Node<>(
+            Shape.of(decoder),
+            x -> f.apply(decoder.decode(x)),
+            reader == null ? null : p -> f.apply(reader.read(p)),
+            kinds);
+    }
+}
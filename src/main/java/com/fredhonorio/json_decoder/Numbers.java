@@ -0,0 +1,167 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vavr.control.Either;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import static io.vavr.control.Either.left;
+import static io.vavr.control.Either.right;
+
+/**
+ * Exact conversions of json numbers to primitives that don't throw. Failures have the same messages as
+ * {@link BigDecimal#intValueExact()} and {@link BigDecimal#longValueExact()}.
+ */
+final class Numbers {
+    private Numbers() {
+    }
+
+    static final DecodeError OVERFLOW = DecodeError.of("Overflow");
+    static final DecodeError ROUNDING = DecodeError.of("Rounding necessary");
+
+    static final DecodeError NOT_AN_INT = DecodeError.of("not an Integer");
+    static final DecodeError NOT_A_LONG = DecodeError.of("not a Long");
+
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    /**
+     * Why a number isn't exactly an int, {@code null} if it is and {@link BigDecimal#intValue()} can be used.
+     */
+    static DecodeError intError(BigDecimal big) {
+        // integers with up to 9 digits always fit, which is what most numbers look like
+        if (big.scale() == 0 && big.precision() <= 9)
+            return null;
+
+        DecodeError error = longError(big);
+        if (error != null)
+            return error;
+
+        long l = big.longValue();
+        return (int) l == l ? null : OVERFLOW;
+    }
+
+    /**
+     * Why a number isn't exactly a long, {@code null} if it is and {@link BigDecimal#longValue()} can be used.
+     */
+    static DecodeError longError(BigDecimal big) {
+        if (big.scale() == 0 && big.precision() <= 18)
+            return null;
+        if (big.signum() == 0)
+            return null;
+
+        // same checks, in the same order, as BigDecimal.longValueExact
+        int digits = big.precision() - big.scale();
+        if (digits <= 0)
+            return ROUNDING;
+        if (digits > 19)
+            return OVERFLOW;
+        if (big.scale() > 0 && big.stripTrailingZeros().scale() > 0)
+            return ROUNDING;
+        if (big.compareTo(LONG_MIN) < 0 || big.compareTo(LONG_MAX) > 0)
+            return OVERFLOW;
+        return null;
+    }
+
+    static Either<DecodeError, Integer> toInt(BigDecimal big) {
+        DecodeError error = intError(big);
+        return error == null ? right(big.intValue()) : left(error);
+    }
+
+    static Either<DecodeError, Long> toLong(BigDecimal big) {
+        DecodeError error = longError(big);
+        return error == null ? right(big.longValue()) : left(error);
+    }
+
+    static Either<DecodeError, Float> toFloat(BigDecimal big) {
+        return right(big.floatValue());
+    }
+
+    static Either<DecodeError, Double> toDouble(BigDecimal big) {
+        return right(big.doubleValue());
+    }
+
+    /**
+     * Reads the numeric token the parser is at as an int, integers are read without building a {@link BigDecimal}.
+     */
+    static Either<DecodeError, Integer> readInt(JsonParser p) throws IOException {
+        if (p.getCurrentToken() != JsonToken.VALUE_NUMBER_INT)
+            return toInt(p.getDecimalValue());
+
+        // Jackson picks the smallest type that fits the integer
+        return p.getNumberType() == JsonParser.NumberType.INT
+            ? right(p.getIntValue())
+            : left(OVERFLOW);
+    }
+
+    /**
+     * Reads the numeric token the parser is at as a long, integers are read without building a {@link BigDecimal}.
+     */
+    static Either<DecodeError, Long> readLong(JsonParser p) throws IOException {
+        if (p.getCurrentToken() != JsonToken.VALUE_NUMBER_INT)
+            return toLong(p.getDecimalValue());
+
+        return p.getNumberType() != JsonParser.NumberType.BIG_INTEGER
+            ? right(p.getLongValue())
+            : left(OVERFLOW);
+    }
+
+    /**
+     * Reads the numeric token the parser is at as a float, parsing the text directly so that it's rounded once,
+     * like {@link BigDecimal#floatValue()}.
+     */
+    static Either<DecodeError, Float> readFloat(JsonParser p) throws IOException {
+        return right(Float.parseFloat(p.getText()));
+    }
+
+    static Either<DecodeError, Double> readDouble(JsonParser p) throws IOException {
+        return right(p.getDoubleValue());
+    }
+
+    /**
+     * Whether a string is an int written the way {@link Integer#toString(int)} writes it, without a sign or leading
+     * zeros, so that it can be parsed without throwing and no two such strings parse to the same int.
+     */
+    static boolean isInt(String s) {
+        return isDecimal(s, "2147483647", "2147483648");
+    }
+
+    /**
+     * Whether a string is a long written the way {@link Long#toString(long)} writes it, see {@link #isInt(String)}.
+     */
+    static boolean isLong(String s) {
+        return isDecimal(s, "9223372036854775807", "9223372036854775808");
+    }
+
+    private static boolean isDecimal(String s, String max, String minAbs) {
+        int length = s.length();
+        boolean negative = length > 0 && s.charAt(0) == '-';
+        int first = negative ? 1 : 0;
+        if (first == length)
+            return false;
+        // "0" is the only number that starts with a zero, and it has no sign
+        if (s.charAt(first) == '0')
+            return length == 1;
+
+        for (int i = first; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9')
+                return false;
+        }
+
+        // numbers with as many digits as the limit are compared digit by digit
+        String limit = negative ? minAbs : max;
+        int digits = length - first;
+        if (digits != limit.length())
+            return digits < limit.length();
+        for (int i = 0; i < digits; i++) {
+            char c = s.charAt(first + i);
+            char l = limit.charAt(i);
+            if (c != l)
+                return c < l;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package com.fredhonorio.json_decoder;
+
+/**
+ * Sizing and hashing for the open addressing tables of {@link LongDoubleMap}, {@link IntLongMap} and
+ * {@link StringIntMap}. Tables have a power of two size and are kept at most half full.
+ */
+final class OpenAddressing {
+    private OpenAddressing() {
+    }
+
+    private static final int MIN_CAPACITY = 8;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The size of a table that fits the given number of entries.
+     */
+    static int capacity(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && isFull(expectedSize, capacity))
+            capacity <<= 1;
+        return capacity;
+    }
+
+    static boolean isFull(int size, int capacity) {
+        return size > capacity / 2;
+    }
+
+    static int hash(long key) {
+        // spreads keys that only differ in the high bits, or are multiples of a power of two
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static int hash(Object key) {
+        return hash((long) key.hashCode());
+    }
+}
@@ -0,0 +1,154 @@
+package com.fredhonorio.json_decoder;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.control.Either;
+import net.hamnaberg.json.Json;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static io.vavr.control.Either.left;
+import static io.vavr.control.Either.right;
+
+/**
+ * Decodes the elements of arrays and the values of objects on the common {@link ForkJoinPool}. The values are split
+ * in halves until there are at most {@code threshold} of them, which are decoded sequentially. Inputs smaller than the
+ * threshold are decoded on the calling thread.
+ * <p>
+ * The result is the same as decoding sequentially: the order is kept and, if several values fail, the failure with
+ * the lowest index is returned. Once a value fails the values after it aren't decoded anymore.
+ */
+final class Parallel {
+    private Parallel() {
+    }
+
+    static final int DEFAULT_THRESHOLD = 512;
+
+    static <T> Either<DecodeError, List<T>> list(Json.JArray arr, Decoder<T> inner, int threshold) {
+        ArrayList<Json.JValue> values = new ArrayList<>(arr.size());
+        arr.forEach(values::add);
+
+        return decode(values.toArray(new Json.JValue[0]), inner, threshold, (i, err) -> DecodeError.element(i, err))
+            .map(results -> {
+                @SuppressWarnings("unchecked")
+                List<T> list = (List<T>) List.of(results);
+                return list;
+            });
+    }
+
+    static <T> Either<DecodeError, Map<String, T>> dict(Json.JObject obj, Decoder<T> inner, int threshold) {
+        List<Tuple2<String, Json.JValue>> members = obj.mapToList(Tuple::of);
+        String[] keys = new String[members.size()];
+        Json.JValue[] values = new Json.JValue[members.size()];
+        int i = 0;
+        for (Tuple2<String, Json.JValue> member : members) {
+            keys[i] = member._1;
+            values[i++] = member._2;
+        }
+
+        return decode(values, inner, threshold, (idx, err) -> DecodeError.key(keys[idx], err))
+            .map(results -> {
+                ArrayList<Tuple2<String, T>> entries = new ArrayList<>(results.length);
+                for (int j = 0; j < results.length; j++) {
+                    @SuppressWarnings("unchecked")
+                    T value = (T) results[j];
+                    entries.add(Tuple.of(keys[j], value));
+                }
+                return HashMap.ofEntries(entries);
+            });
+    }
+
+    private static Either<DecodeError, Object[]> decode(Json.JValue[] values, Decoder<?> inner, int threshold, BiFunction<Integer, DecodeError, DecodeError> prefix) {
+        Object[] results = new Object[values.length];
+        AtomicReference<Failure> failure = new AtomicReference<>();
+        Chunk chunk = new Chunk(values, inner, results, failure, 0, values.length, Math.max(1, threshold));
+
+        if (values.length <= threshold)
+            chunk.compute();
+        else
+            ForkJoinPool.commonPool().invoke(chunk);
+
+        Failure failed = failure.get();
+        return failed == null
+            ? right(results)
+            : left(prefix.apply(failed.index, failed.error));
+    }
+
+    private static final class Failure {
+        final int index;
+        final DecodeError error;
+
+        Failure(int index, DecodeError error) {
+            this.index = index;
+            this.error = error;
+        }
+    }
+
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Json.JValue[] values;
+        private final Decoder<?> inner;
+        private final Object[] results;
+        private final AtomicReference<Failure> failure;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        Chunk(Json.JValue[] values, Decoder<?> inner, Object[] results, AtomicReference<Failure> failure, int from, int to, int threshold) {
+            this.values = values;
+            this.inner = inner;
+            this.results = results;
+            this.failure = failure;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                    new Chunk(values, inner, results, failure, from, mid, threshold),
+                    new Chunk(values, inner, results, failure, mid, to, threshold));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                if (failedBefore(i))
+                    return;
+
+                Either<DecodeError, ?> result = inner.decode(values[i]);
+                if (result.isLeft()) {
+                    fail(i, result.getLeft());
+                    return;
+                }
+                results[i] = result.get();
+            }
+        }
+
+        private boolean failedBefore(int index) {
+            Failure f = failure.get();
+            return f != null && f.index < index;
+        }
+
+        private void fail(int index, DecodeError error) {
+            Failure f = new Failure(index, error);
+            while (true) {
+                Failure current = failure.get();
+                if (current != null && current.index < index)
+                    return;
+                if (failure.compareAndSet(current, f))
+                    return;
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import net.hamnaberg.json.Json;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import static io.vavr.control.Either.left;
+
+/**
+ * Decodes the value at a path of object fields, like {@link Decoders#at(io.vavr.collection.List, Decoder)}. Nested
+ * {@link Decoders#field(String, Decoder)}s are collapsed into a single path when they are built, so the value is
+ * walked in one loop instead of going through a decoder, and a result, per field. Failures read exactly like those of
+ * the nested fields.
+ * <p>
+ * A path is the member of the {@link FieldNode} for its first key, so that {@link Fields} can still decode it along
+ * with the other fields of the same object. It only walks the keys after the first.
+ */
+final class PathNode<T> extends Node<T> {
+    private static final DecodeError MISSING = DecodeError.of("missing");
+
+    private final Walk<T> walk;
+
+    private PathNode(Walk<T> walk) {
+        // past the first key every step is an object
+        super(walk.shape(), walk, walk, walk.keys.length > 1 ? Kinds.OBJECT : Kinds.of(walk.inner));
+        this.walk = walk;
+    }
+
+    /**
+     * The member of {@code field(key, inner)}, which continues the path of {@code inner} if it's also a field.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> PathNode<T> field(String key, Decoder<T> inner) {
+        if (inner instanceof FieldNode && ((FieldNode<T>) inner).member instanceof PathNode) {
+            Walk<T> rest = ((PathNode<T>) ((FieldNode<T>) inner).member).walk;
+            String[] keys = new String[rest.keys.length + 1];
+            keys[0] = key;
+            System.arraycopy(rest.keys, 0, keys, 1, rest.keys.length);
+            return new PathNode<>(new Walk<>(keys, rest.inner));
+        }
+        return new PathNode<>(new Walk<>(new String[]{key}, inner));
+    }
+
+    /**
+     * The decoder of the value of the field when the path is a single field, otherwise {@code null}. Its failures
+     * don't say which field failed.
+     */
+    Decoder<T> fieldValue() {
+        return walk.keys.length == 1 ? walk.inner : null;
+    }
+
+    /**
+     * The keys of the path, including the first.
+     */
+    String[] keys() {
+        return walk.keys.clone();
+    }
+
+    private static final class Walk<T> implements Function<Json.JValue, Either<DecodeError, T>>, Streaming.Reader<T> {
+        final String[] keys;
+        final Decoder<T> inner;
+
+        Walk(String[] keys, Decoder<T> inner) {
+            this.keys = keys;
+            this.inner = inner;
+        }
+
+        Shape shape() {
+            Shape shape = Shape.of(inner);
+            for (int i = keys.length - 1; i > 0; i--)
+                shape = Shape.field(keys[i], shape);
+            return shape;
+        }
+
+        @Override
+        public Either<DecodeError, T> apply(Json.JValue value) {
+            return walk(value, 1);
+        }
+
+        @Override
+        public Either<DecodeError, T> read(JsonParser p) throws IOException {
+            return read(p, 1);
+        }
+
+        private Either<DecodeError, T> walk(Json.JValue value, int from) {
+            Json.JValue current = value;
+            for (int i = from; i < keys.length; i++) {
+                Option<Json.JObject> obj = current.asJsonObject();
+                if (obj.isEmpty())
+                    return left(under(i, DecodeError.expected("JObject", current)));
+
+                Option<Json.JValue> member = obj.get().get(keys[i]);
+                if (member.isEmpty())
+                    return left(under(i + 1, MISSING));
+                current = member.get();
+            }
+            return decoded(inner.decode(current));
+        }
+
+        /**
+         * Like {@link #walk(Json.JValue, int)}, the last member wins if a key is repeated.
+         */
+        private Either<DecodeError, T> read(JsonParser p, int from) throws IOException {
+            if (from == keys.length)
+                return decoded(Streaming.read(p, inner));
+
+            if (p.getCurrentToken() != JsonToken.START_OBJECT)
+                return Streaming.fallback(p, value -> walk(value, from));
+
+            Either<DecodeError, T> found = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                boolean matches = keys[from].equals(p.getCurrentName());
+                p.nextToken();
+                if (matches)
+                    found = read(p, from + 1);
+                else
+                    p.skipChildren();
+            }
+            return found != null
+                ? found
+                : left(under(from + 1, MISSING));
+        }
+
+        private Either<DecodeError, T> decoded(Either<DecodeError, T> result) {
+            return result.isLeft()
+                ? left(under(keys.length, result.getLeft()))
+                : result;
+        }
+
+        /**
+         * An error found after following the first {@code n} keys.
+         */
+        private DecodeError under(int n, DecodeError error) {
+            for (int i = n - 1; i >= 0; i--)
+                error = DecodeError.field(keys[i], error);
+            return error;
+        }
+    }
+}
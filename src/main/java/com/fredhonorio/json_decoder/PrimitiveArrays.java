@@ -0,0 +1,191 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import net.hamnaberg.json.Json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static io.vavr.control.Either.left;
+import static io.vavr.control.Either.right;
+
+/**
+ * Decodes arrays of numbers into primitive arrays, without boxing the elements. Elements that can't be converted on
+ * the fast path go through the corresponding boxed decoder, so failures read exactly like those of
+ * {@link Decoders#list(Decoder)}.
+ */
+final class PrimitiveArrays {
+    private PrimitiveArrays() {
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    static final Decoder<int[]> INTS = Node.of(Shape.elements(Shape.SCALAR), PrimitiveArrays::ints, PrimitiveArrays::readInts).accepting(Kinds.ARRAY);
+    static final Decoder<long[]> LONGS = Node.of(Shape.elements(Shape.SCALAR), PrimitiveArrays::longs, PrimitiveArrays::readLongs).accepting(Kinds.ARRAY);
+    static final Decoder<float[]> FLOATS = Node.of(Shape.elements(Shape.SCALAR), PrimitiveArrays::floats, PrimitiveArrays::readFloats).accepting(Kinds.ARRAY);
+    static final Decoder<double[]> DOUBLES = Node.of(Shape.elements(Shape.SCALAR), PrimitiveArrays::doubles, PrimitiveArrays::readDoubles).accepting(Kinds.ARRAY);
+
+    private static Either<DecodeError, int[]> ints(Json.JValue value) {
+        Option<Json.JArray> arr = value.asJsonArray();
+        if (arr.isEmpty())
+            return left(DecodeError.expected("JArray", value));
+
+        int[] values = new int[arr.get().size()];
+        int i = 0;
+        for (Json.JValue v : arr.get()) {
+            BigDecimal big = v.asBigDecimal().getOrNull();
+            if (big != null && Numbers.intError(big) == null) {
+                values[i] = big.intValue();
+            } else {
+                Either<DecodeError, Integer> slow = Decoders.Integer.decode(v);
+                if (slow.isLeft())
+                    return left(DecodeError.element(i, slow.getLeft()));
+                values[i] = slow.get();
+            }
+            i++;
+        }
+        return right(values);
+    }
+
+    private static Either<DecodeError, long[]> longs(Json.JValue value) {
+        Option<Json.JArray> arr = value.asJsonArray();
+        if (arr.isEmpty())
+            return left(DecodeError.expected("JArray", value));
+
+        long[] values = new long[arr.get().size()];
+        int i = 0;
+        for (Json.JValue v : arr.get()) {
+            BigDecimal big = v.asBigDecimal().getOrNull();
+            if (big != null && Numbers.longError(big) == null) {
+                values[i] = big.longValue();
+            } else {
+                Either<DecodeError, Long> slow = Decoders.Long.decode(v);
+                if (slow.isLeft())
+                    return left(DecodeError.element(i, slow.getLeft()));
+                values[i] = slow.get();
+            }
+            i++;
+        }
+        return right(values);
+    }
+
+    private static Either<DecodeError, float[]> floats(Json.JValue value) {
+        Option<Json.JArray> arr = value.asJsonArray();
+        if (arr.isEmpty())
+            return left(DecodeError.expected("JArray", value));
+
+        float[] values = new float[arr.get().size()];
+        int i = 0;
+        for (Json.JValue v : arr.get()) {
+            BigDecimal big = v.asBigDecimal().getOrNull();
+            if (big == null)
+                return left(DecodeError.element(i, Decoders.Float.decode(v).getLeft()));
+            values[i++] = big.floatValue();
+        }
+        return right(values);
+    }
+
+    private static Either<DecodeError, double[]> doubles(Json.JValue value) {
+        Option<Json.JArray> arr = value.asJsonArray();
+        if (arr.isEmpty())
+            return left(DecodeError.expected("JArray", value));
+
+        double[] values = new double[arr.get().size()];
+        int i = 0;
+        for (Json.JValue v : arr.get()) {
+            BigDecimal big = v.asBigDecimal().getOrNull();
+            if (big == null)
+                return left(DecodeError.element(i, Decoders.Double.decode(v).getLeft()));
+            values[i++] = big.doubleValue();
+        }
+        return right(values);
+    }
+
+    private static Either<DecodeError, int[]> readInts(JsonParser p) throws IOException {
+        if (p.getCurrentToken() != JsonToken.START_ARRAY)
+            return Streaming.fallback(p, PrimitiveArrays::ints);
+
+        int[] values = new int[INITIAL_CAPACITY];
+        int n = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            int v;
+            if (p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT && p.getNumberType() == JsonParser.NumberType.INT) {
+                v = p.getIntValue();
+            } else {
+                Either<DecodeError, Integer> slow = Streaming.read(p, Decoders.Integer);
+                if (slow.isLeft())
+                    return elementError(p, n, slow.getLeft());
+                v = slow.get();
+            }
+            if (n == values.length)
+                values = Arrays.copyOf(values, n * 2);
+            values[n++] = v;
+        }
+        return right(n == values.length ? values : Arrays.copyOf(values, n));
+    }
+
+    private static Either<DecodeError, long[]> readLongs(JsonParser p) throws IOException {
+        if (p.getCurrentToken() != JsonToken.START_ARRAY)
+            return Streaming.fallback(p, PrimitiveArrays::longs);
+
+        long[] values = new long[INITIAL_CAPACITY];
+        int n = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            long v;
+            if (p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT && p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                v = p.getLongValue();
+            } else {
+                Either<DecodeError, Long> slow = Streaming.read(p, Decoders.Long);
+                if (slow.isLeft())
+                    return elementError(p, n, slow.getLeft());
+                v = slow.get();
+            }
+            if (n == values.length)
+                values = Arrays.copyOf(values, n * 2);
+            values[n++] = v;
+        }
+        return right(n == values.length ? values : Arrays.copyOf(values, n));
+    }
+
+    private static Either<DecodeError, float[]> readFloats(JsonParser p) throws IOException {
+        if (p.getCurrentToken() != JsonToken.START_ARRAY)
+            return Streaming.fallback(p, PrimitiveArrays::floats);
+
+        float[] values = new float[INITIAL_CAPACITY];
+        int n = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (!p.getCurrentToken().isNumeric())
+                return elementError(p, n, Streaming.read(p, Decoders.Float).getLeft());
+            if (n == values.length)
+                values = Arrays.copyOf(values, n * 2);
+            // parsed from the text so that it's rounded once, like BigDecimal.floatValue
+            values[n++] = Float.parseFloat(p.getText());
+        }
+        return right(n == values.length ? values : Arrays.copyOf(values, n));
+    }
+
+    private static Either<DecodeError, double[]> readDoubles(JsonParser p) throws IOException {
+        if (p.getCurrentToken() != JsonToken.START_ARRAY)
+            return Streaming.fallback(p, PrimitiveArrays::doubles);
+
+        double[] values = new double[INITIAL_CAPACITY];
+        int n = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (!p.getCurrentToken().isNumeric())
+                return elementError(p, n, Streaming.read(p, Decoders.Double).getLeft());
+            if (n == values.length)
+                values = Arrays.copyOf(values, n * 2);
+            values[n++] = p.getDoubleValue();
+        }
+        return right(n == values.length ? values : Arrays.copyOf(values, n));
+    }
+
+    private static <T> Either<DecodeError, T> elementError(JsonParser p, int index, DecodeError error) throws IOException {
+        Streaming.skipRest(p);
+        return left(DecodeError.element(index, error));
+    }
+}
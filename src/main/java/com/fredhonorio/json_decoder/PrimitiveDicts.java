@@ -0,0 +1,228 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import net.hamnaberg.json.Json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.function.Function;
+
+import static io.vavr.control.Either.left;
+import static io.vavr.control.Either.right;
+
+/**
+ * Decodes objects whose keys are numbers, parsing the keys while decoding, and objects of numbers into maps of
+ * primitives. Keys are checked before they're parsed, so that parsing never throws. Like in
+ * {@link PrimitiveArrays}, values that can't be converted on the fast path go through the corresponding boxed decoder,
+ * so failures read like those of {@link Decoders#dict(Decoder)}.
+ */
+final class PrimitiveDicts {
+    private PrimitiveDicts() {
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    static final Decoder<LongDoubleMap> LONG_DOUBLES = Node.of(Shape.members(Shape.SCALAR), PrimitiveDicts::longDoubles, PrimitiveDicts::readLongDoubles).accepting(Kinds.OBJECT);
+    static final Decoder<IntLongMap> INT_LONGS = Node.of(Shape.members(Shape.SCALAR), PrimitiveDicts::intLongs, PrimitiveDicts::readIntLongs).accepting(Kinds.OBJECT);
+    static final Decoder<StringIntMap> STRING_INTS = Node.of(Shape.members(Shape.SCALAR), PrimitiveDicts::stringInts, PrimitiveDicts::readStringInts).accepting(Kinds.OBJECT);
+
+    static <T> Decoder<Map<Long, T>> longKeys(Decoder<T> inner) {
+        return keyed(inner, s -> Numbers.isLong(s) ? Long.parseLong(s) : null, Numbers.NOT_A_LONG);
+    }
+
+    static <T> Decoder<Map<Integer, T>> intKeys(Decoder<T> inner) {
+        return keyed(inner, s -> Numbers.isInt(s) ? Integer.parseInt(s) : null, Numbers.NOT_AN_INT);
+    }
+
+    /**
+     * A dict whose keys are parsed by a function that returns {@code null} for keys that aren't valid.
+     */
+    private static <K, T> Decoder<Map<K, T>> keyed(Decoder<T> inner, Function<String, K> parse, DecodeError invalid) {
+        Function<Json.JValue, Either<DecodeError, Map<K, T>>> tree = value -> {
+            Option<Json.JObject> obj = value.asJsonObject();
+            if (obj.isEmpty())
+                return left(DecodeError.expected("JObject", value));
+
+            ArrayList<Tuple2<K, T>> entries = new ArrayList<>(obj.get().size());
+            for (Tuple2<String, Json.JValue> member : obj.get().mapToList(Tuple::of)) {
+                K key = parse.apply(member._1);
+                if (key == null)
+                    return left(DecodeError.key(member._1, invalid));
+                Either<DecodeError, T> decoded = inner.decode(member._2);
+                if (decoded.isLeft())
+                    return left(DecodeError.key(member._1, decoded.getLeft()));
+                entries.add(Tuple.of(key, decoded.get()));
+            }
+            return right(HashMap.ofEntries(entries));
+        };
+
+        Streaming.Reader<Map<K, T>> reader = p -> {
+            if (p.getCurrentToken() != JsonToken.START_OBJECT)
+                return Streaming.fallback(p, tree);
+
+            ArrayList<Tuple2<K, T>> entries = new ArrayList<>();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.getCurrentName();
+                p.nextToken();
+                K key = parse.apply(name);
+                if (key == null)
+                    return keyError(p, name, invalid);
+                Either<DecodeError, T> decoded = Streaming.read(p, inner);
+                if (decoded.isLeft())
+                    return valueError(p, name, decoded.getLeft());
+                entries.add(Tuple.of(key, decoded.get()));
+            }
+            return right(HashMap.ofEntries(entries));
+        };
+
+        return Node.of(Shape.members(Shape.of(inner)), tree, reader).accepting(Kinds.OBJECT);
+    }
+
+    private static Either<DecodeError, LongDoubleMap> longDoubles(Json.JValue value) {
+        Option<Json.JObject> obj = value.asJsonObject();
+        if (obj.isEmpty())
+            return left(DecodeError.expected("JObject", value));
+
+        LongDoubleMap.Builder map = new LongDoubleMap.Builder(obj.get().size());
+        for (Tuple2<String, Json.JValue> member : obj.get().mapToList(Tuple::of)) {
+            if (!Numbers.isLong(member._1))
+                return left(DecodeError.key(member._1, Numbers.NOT_A_LONG));
+            BigDecimal big = member._2.asBigDecimal().getOrNull();
+            if (big == null)
+                return left(DecodeError.key(member._1, Decoders.Double.decode(member._2).getLeft()));
+            map.put(Long.parseLong(member._1), big.doubleValue());
+        }
+        return right(map.build());
+    }
+
+    private static Either<DecodeError, IntLongMap> intLongs(Json.JValue value) {
+        Option<Json.JObject> obj = value.asJsonObject();
+        if (obj.isEmpty())
+            return left(DecodeError.expected("JObject", value));
+
+        IntLongMap.Builder map = new IntLongMap.Builder(obj.get().size());
+        for (Tuple2<String, Json.JValue> member : obj.get().mapToList(Tuple::of)) {
+            if (!Numbers.isInt(member._1))
+                return left(DecodeError.key(member._1, Numbers.NOT_AN_INT));
+            BigDecimal big = member._2.asBigDecimal().getOrNull();
+            if (big != null && Numbers.longError(big) == null) {
+                map.put(Integer.parseInt(member._1), big.longValue());
+            } else {
+                Either<DecodeError, Long> slow = Decoders.Long.decode(member._2);
+                if (slow.isLeft())
+                    return left(DecodeError.key(member._1, slow.getLeft()));
+                map.put(Integer.parseInt(member._1), slow.get());
+            }
+        }
+        return right(map.build());
+    }
+
+    private static Either<DecodeError, StringIntMap> stringInts(Json.JValue value) {
+        Option<Json.JObject> obj = value.asJsonObject();
+        if (obj.isEmpty())
+            return left(DecodeError.expected("JObject", value));
+
+        StringIntMap.Builder map = new StringIntMap.Builder(obj.get().size());
+        for (Tuple2<String, Json.JValue> member : obj.get().mapToList(Tuple::of)) {
+            BigDecimal big = member._2.asBigDecimal().getOrNull();
+            if (big != null && Numbers.intError(big) == null) {
+                map.put(member._1, big.intValue());
+            } else {
+                Either<DecodeError, Integer> slow = Decoders.Integer.decode(member._2);
+                if (slow.isLeft())
+                    return left(DecodeError.key(member._1, slow.getLeft()));
+                map.put(member._1, slow.get());
+            }
+        }
+        return right(map.build());
+    }
+
+    private static Either<DecodeError, LongDoubleMap> readLongDoubles(JsonParser p) throws IOException {
+        if (p.getCurrentToken() != JsonToken.START_OBJECT)
+            return Streaming.fallback(p, PrimitiveDicts::longDoubles);
+
+        LongDoubleMap.Builder map = new LongDoubleMap.Builder(INITIAL_CAPACITY);
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String key = p.getCurrentName();
+            p.nextToken();
+            if (!Numbers.isLong(key))
+                return keyError(p, key, Numbers.NOT_A_LONG);
+            if (!p.getCurrentToken().isNumeric())
+                return valueError(p, key, Streaming.read(p, Decoders.Double).getLeft());
+            map.put(Long.parseLong(key), p.getDoubleValue());
+        }
+        return right(map.build());
+    }
+
+    private static Either<DecodeError, IntLongMap> readIntLongs(JsonParser p) throws IOException {
+        if (p.getCurrentToken() != JsonToken.START_OBJECT)
+            return Streaming.fallback(p, PrimitiveDicts::intLongs);
+
+        IntLongMap.Builder map = new IntLongMap.Builder(INITIAL_CAPACITY);
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String key = p.getCurrentName();
+            p.nextToken();
+            if (!Numbers.isInt(key))
+                return keyError(p, key, Numbers.NOT_AN_INT);
+
+            long v;
+            if (p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT && p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                v = p.getLongValue();
+            } else {
+                Either<DecodeError, Long> slow = Streaming.read(p, Decoders.Long);
+                if (slow.isLeft())
+                    return valueError(p, key, slow.getLeft());
+                v = slow.get();
+            }
+            map.put(Integer.parseInt(key), v);
+        }
+        return right(map.build());
+    }
+
+    private static Either<DecodeError, StringIntMap> readStringInts(JsonParser p) throws IOException {
+        if (p.getCurrentToken() != JsonToken.START_OBJECT)
+            return Streaming.fallback(p, PrimitiveDicts::stringInts);
+
+        StringIntMap.Builder map = new StringIntMap.Builder(INITIAL_CAPACITY);
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String key = p.getCurrentName();
+            p.nextToken();
+
+            int v;
+            if (p.getCurrentToken() == JsonToken.VALUE_NUMBER_INT && p.getNumberType() == JsonParser.NumberType.INT) {
+                v = p.getIntValue();
+            } else {
+                Either<DecodeError, Integer> slow = Streaming.read(p, Decoders.Integer);
+                if (slow.isLeft())
+                    return valueError(p, key, slow.getLeft());
+                v = slow.get();
+            }
+            map.put(key, v);
+        }
+        return right(map.build());
+    }
+
+    /**
+     * Fails on a key before its value was read.
+     */
+    private static <T> Either<DecodeError, T> keyError(JsonParser p, String key, DecodeError error) throws IOException {
+        p.skipChildren();
+        return valueError(p, key, error);
+    }
+
+    /**
+     * Fails on a key after its value was read.
+     */
+    private static <T> Either<DecodeError, T> valueError(JsonParser p, String key, DecodeError error) throws IOException {
+        Streaming.skipRest(p);
+        return left(DecodeError.key(key, error));
+    }
+}
@@ -0,0 +1,205 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import io.vavr.control.Either;
+import net.hamnaberg.json.Json;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Function;
+
+import static io.vavr.control.Either.left;
+
+/**
+ * Recursive decoders. The decoder is built once, with a reference to itself that is only followed when decoding, and
+ * stack safe decoders refuse values nested deeper than a limit before decoding them. The limit applies to the whole
+ * value, including the parts the decoder doesn't read, so decoding a tree and a token stream agree.
+ */
+final class Recursive {
+    private Recursive() {
+    }
+
+    /**
+     * How deeply values decoded by {@link Decoders#stackSafe(Decoder)} may nest arrays and objects. Decoding a level
+     * takes a handful of calls, this many fit in the default 1MB stack of a thread even before the decoder is
+     * compiled.
+     */
+    static final int MAX_DEPTH = 512;
+
+    private static final DecodeError TOO_DEEP = DecodeError.of("too deeply nested");
+
+    static <T> Decoder<T> of(Function<Decoder<T>, Decoder<T>> recursive) {
+        Knot<T> knot = new Knot<>();
+        Decoder<T> decoder = recursive.apply(knot.self);
+        knot.decoder = decoder;
+        return decoder;
+    }
+
+    static <T> Decoder<T> stackSafe(Decoder<T> decoder, int maxDepth) {
+        if (maxDepth < 1)
+            throw new IllegalArgumentException("maxDepth must be positive: " + maxDepth);
+
+        return Node.of(
+            Shape.of(decoder),
+            value -> deeperThan(value, maxDepth) ? left(TOO_DEEP) : decoder.decode(value),
+            p -> {
+                Limited limited = new Limited(p, maxDepth);
+                try {
+                    return Streaming.read(limited, decoder);
+                } catch (TooDeep e) {
+                    // nothing was decoded past the limit, skip the rest of the value
+                    limited.skipOpen();
+                    return left(TOO_DEEP);
+                }
+            });
+    }
+
+    /**
+     * Whether a value nests more than the given number of arrays and objects, walking it with a stack on the heap.
+     */
+    static boolean deeperThan(Json.JValue value, int maxDepth) {
+        ArrayDeque<Iterator<Json.JValue>> open = new ArrayDeque<>();
+        Iterator<Json.JValue> children = children(value);
+        if (children != null)
+            open.push(children);
+
+        while (!open.isEmpty()) {
+            Iterator<Json.JValue> siblings = open.peek();
+            if (!siblings.hasNext()) {
+                open.pop();
+                continue;
+            }
+
+            Iterator<Json.JValue> next = children(siblings.next());
+            if (next != null) {
+                if (open.size() == maxDepth)
+                    return true;
+                open.push(next);
+            }
+        }
+        return false;
+    }
+
+    private static Iterator<Json.JValue> children(Json.JValue value) {
+        if (value.isArray())
+            return value.asJsonArray().get().iterator();
+        if (value.isObject())
+            return value.asJsonObject().get().values().iterator();
+        return null;
+    }
+
+    /**
+     * Fails reading past the depth limit, unwinding the readers.
+     */
+    private static final class TooDeep extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        TooDeep() {
+            super(TOO_DEEP.message());
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * Counts how deeply the tokens read from a parser nest, from the value it's positioned at. Skipped arrays and
+     * objects are read token by token, so that they count too.
+     */
+    private static final class Limited extends JsonParserDelegate {
+        private final int maxDepth;
+        private int depth;
+
+        Limited(JsonParser parser, int maxDepth) {
+            super(parser);
+            this.maxDepth = maxDepth;
+            this.depth = parser.isExpectedStartArrayToken() || parser.isExpectedStartObjectToken() ? 1 : 0;
+        }
+
+        @Override
+        public JsonToken nextToken() throws IOException {
+            return counted(delegate.nextToken());
+        }
+
+        @Override
+        public JsonToken nextValue() throws IOException {
+            return counted(delegate.nextValue());
+        }
+
+        @Override
+        public JsonParser skipChildren() throws IOException {
+            if (!delegate.isExpectedStartArrayToken() && !delegate.isExpectedStartObjectToken())
+                return this;
+            for (int open = 1; open > 0; ) {
+                JsonToken token = nextToken();
+                if (token == null)
+                    break;
+                if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT)
+                    open++;
+                else if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT)
+                    open--;
+            }
+            return this;
+        }
+
+        private JsonToken counted(JsonToken token) throws TooDeep {
+            if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+                if (depth == maxDepth)
+                    throw new TooDeep();
+                depth++;
+            } else if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT) {
+                depth--;
+            }
+            return token;
+        }
+
+        /**
+         * Reads to the end of the arrays and objects that are still open, so that the parser is at the last token of
+         * the value.
+         */
+        void skipOpen() throws IOException {
+            // the token that went past the limit was never counted
+            delegate.skipChildren();
+            for (; depth > 0; depth--) {
+                while (true) {
+                    JsonToken token = delegate.nextToken();
+                    if (token == null)
+                        return;
+                    if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT)
+                        break;
+                    delegate.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stands for the decoder while it's being built. It reads the whole value, as what the decoder reads isn't known
+     * yet.
+     */
+    private static final class Knot<T> {
+        volatile Decoder<T> decoder;
+
+        final Node<T> self = Node.of(Shape.ALL, this::decode, this::read);
+
+        private Either<DecodeError, T> decode(Json.JValue value) {
+            return built().decode(value);
+        }
+
+        private Either<DecodeError, T> read(JsonParser p) throws IOException {
+            return Streaming.read(p, built());
+        }
+
+        private Decoder<T> built() {
+            Decoder<T> d = decoder;
+            if (d == null)
+                throw new IllegalStateException("a recursive decoder can't be used while it's being built");
+            return d;
+        }
+    }
+}
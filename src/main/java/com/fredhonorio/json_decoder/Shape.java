@@ -0,0 +1,177 @@
+package com.fredhonorio.json_decoder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Describes which parts of a json value a {@link Decoder} reads. Used when decoding from a token stream to only
+ * materialize the parts of the document that will actually be looked at.
+ * <p>
+ * Objects and arrays are described separately. If a shape doesn't navigate into a kind of value (e.g. a
+ * {@code String} decoder that is given an object) the value is read in full, since it will end up in an error message.
+ */
+final class Shape {
+
+    /**
+     * Reads the whole value.
+     */
+    static final Shape ALL = new Shape();
+
+    /**
+     * Doesn't read the value at all, like {@link Decoders#succeed(Object)}.
+     */
+    static final Shape NONE = new Shape(true, null, null);
+
+    /**
+     * Reads a scalar, objects and arrays are only read to be reported.
+     */
+    static final Shape SCALAR = new Shape(false, null, null);
+
+    private final boolean ignored;
+    private final Part<String> object;
+    private final Part<Integer> array;
+
+    private Shape() {
+        // every member and element is also read in full
+        this.ignored = false;
+        this.object = Part.rest(this);
+        this.array = Part.rest(this);
+    }
+
+    private Shape(boolean ignored, Part<String> object, Part<Integer> array) {
+        this.ignored = ignored;
+        this.object = object;
+        this.array = array;
+    }
+
+    /**
+     * The shape of an object field.
+     */
+    static Shape field(String key, Shape inner) {
+        return new Shape(false, Part.key(key, inner), null);
+    }
+
+    /**
+     * The shape of every member of an object.
+     */
+    static Shape members(Shape inner) {
+        return new Shape(false, Part.rest(inner), null);
+    }
+
+    /**
+     * The shape of an array element.
+     */
+    static Shape index(int index, Shape inner) {
+        return new Shape(false, null, Part.key(index, inner));
+    }
+
+    /**
+     * The shape of every element of an array.
+     */
+    static Shape elements(Shape inner) {
+        return new Shape(false, null, Part.rest(inner));
+    }
+
+    /**
+     * The shape of a decoder, decoders not built by this library read everything.
+     */
+    static Shape of(Decoder<?> decoder) {
+        return decoder instanceof Node
+            ? ((Node<?>) decoder).shape
+            : ALL;
+    }
+
+    /**
+     * The shape of several decoders applied to the same value.
+     */
+    static Shape union(Decoder<?>... decoders) {
+        return union(Arrays.asList(decoders));
+    }
+
+    /**
+     * The shape of several decoders applied to the same value.
+     */
+    static Shape union(Iterable<? extends Decoder<?>> decoders) {
+        Shape s = NONE;
+        for (Decoder<?> d : decoders)
+            s = s.union(of(d));
+        return s;
+    }
+
+    Shape union(Shape other) {
+        if (ignored)
+            return other;
+        if (other.ignored)
+            return this;
+        if (this == ALL || other == ALL)
+            return ALL;
+
+        return new Shape(false, Part.union(object, other.object), Part.union(array, other.array));
+    }
+
+    /**
+     * Whether the value is never looked at.
+     */
+    boolean ignored() {
+        return ignored;
+    }
+
+    /**
+     * The shape to read an object member with, {@code null} if the member can be skipped.
+     */
+    Shape member(String key) {
+        return object == null ? ALL : object.get(key);
+    }
+
+    /**
+     * The shape to read an array element with, {@code null} if the element can be skipped.
+     */
+    Shape element(int index) {
+        return array == null ? ALL : array.get(index);
+    }
+
+    /**
+     * How an object or an array is navigated: a shape for some keys and another for every other key.
+     */
+    private static final class Part<K> {
+        private final Map<K, Shape> keys;
+        private final Shape rest;
+
+        private Part(Map<K, Shape> keys, Shape rest) {
+            this.keys = keys;
+            this.rest = rest;
+        }
+
+        static <K> Part<K> key(K key, Shape inner) {
+            return new Part<>(Collections.singletonMap(key, inner), null);
+        }
+
+        static <K> Part<K> rest(Shape inner) {
+            return new Part<>(Collections.emptyMap(), inner);
+        }
+
+        /**
+         * Navigates like both parts, {@code null} (read in full) if either one is.
+         */
+        static <K> Part<K> union(Part<K> a, Part<K> b) {
+            if (a == null || b == null)
+                return null;
+
+            Shape rest = a.rest == null ? b.rest : b.rest == null ? a.rest : a.rest.union(b.rest);
+            Map<K, Shape> keys = new HashMap<>(a.keys);
+            b.keys.forEach((k, s) -> keys.merge(k, s, Shape::union));
+            // every key is also read by the shape of the other keys
+            if (rest != null)
+                keys.replaceAll((k, s) -> s.union(rest));
+
+            return new Part<>(keys, rest);
+        }
+
+        Shape get(K key) {
+            Shape s = keys.get(key);
+            return s != null ? s : rest;
+        }
+    }
+}
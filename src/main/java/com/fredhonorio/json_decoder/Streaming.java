@@ -0,0 +1,301 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import net.hamnaberg.json.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static io.vavr.control.Either.left;
+import static io.vavr.control.Either.right;
+
+/**
+ * Decodes json straight from a Jackson {@link JsonParser}. Decoders that know how to read the token stream do so,
+ * the others get a {@link net.hamnaberg.json.Json.JValue} that only contains the parts described by their
+ * {@link Shape}.
+ */
+final class Streaming {
+    private Streaming() {
+    }
+
+    /**
+     * Shared by every decode, a {@link JsonFactory} is thread-safe and reuses its buffers and symbol tables. Sources
+     * given by the caller are left open. Error locations don't quote the source: a message should be the same whatever
+     * the input was read from, and batches reuse buffers that still hold parts of other documents.
+     */
+    static final JsonFactory FACTORY = new JsonFactory()
+        .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+        .disable(JsonParser.Feature.INCLUDE_SOURCE_IN_LOCATION);
+
+    /**
+     * Builds the trees of {@link Decoders#decodeString(String, Decoder)}, with Jackson's defaults like the
+     * {@code JacksonStreamingParser} it used to create on every call, so that parse errors read the same.
+     */
+    private static final JsonFactory TREES = new JsonFactory();
+
+    private static final DecodeError MISSING = DecodeError.of("missing");
+
+    /**
+     * Decodes the value at the current token of a parser. When it returns the parser must be at the last token of
+     * the value.
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+        Either<DecodeError, T> read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * Creates a parser for some input.
+     */
+    @FunctionalInterface
+    interface Source {
+        JsonParser open(JsonFactory factory) throws IOException;
+    }
+
+    /**
+     * Decodes the first value of some input.
+     */
+    static <T> Either<DecodeError, T> decode(Source source, Decoder<T> decoder) {
+        try (JsonParser parser = source.open(FACTORY)) {
+            return decode(parser, decoder);
+        } catch (IOException e) {
+            return left(DecodeError.of(e.getMessage()));
+        }
+    }
+
+    /**
+     * Builds the whole first value of a string. It's read through a {@link BufferedReader}, as it was by
+     * {@code JacksonStreamingParser}, which error locations name as the source. Jackson reads many chars at a time,
+     * which a {@link BufferedReader} hands over without copying them to its own buffer, so that buffer is kept small.
+     */
+    static Try<Json.JValue> parse(String json) {
+        return Try.of(() -> {
+            try (JsonParser parser = TREES.createParser(new BufferedReader(new StringReader(json), 1))) {
+                if (parser.nextToken() == null)
+                    throw new net.hamnaberg.json.io.JsonParseException("Nothing parsed");
+                return materialize(parser, Shape.ALL);
+            }
+        });
+    }
+
+    /**
+     * Decodes the next value of a parser, or the current one if the parser is already positioned at a value.
+     */
+    static <T> Either<DecodeError, T> decode(JsonParser parser, Decoder<T> decoder) {
+        try {
+            if (parser.getCurrentToken() == null && parser.nextToken() == null)
+                return left(DecodeError.of("unexpected end of input"));
+
+            return read(parser, decoder);
+        } catch (IOException e) {
+            return left(DecodeError.of(e.getMessage()));
+        }
+    }
+
+    /**
+     * Decodes the value at the current token.
+     */
+    static <T> Either<DecodeError, T> read(JsonParser p, Decoder<T> decoder) throws IOException {
+        Reader<T> reader = Node.readerOf(decoder);
+        return reader != null
+            ? reader.read(p)
+            : decoder.decode(materialize(p, Shape.of(decoder)));
+    }
+
+    /**
+     * Decodes the whole value at the current token with a tree decoder. Readers use this when the value isn't what
+     * they expect, so that errors are the same as when decoding a tree.
+     */
+    static <T> Either<DecodeError, T> fallback(JsonParser p, Function<Json.JValue, Either<DecodeError, T>> tree) throws IOException {
+        return tree.apply(materialize(p, Shape.ALL));
+    }
+
+    /**
+     * Builds the value at the current token, skipping the parts that the given shape doesn't read.
+     */
+    static Json.JValue materialize(JsonParser p, Shape shape) throws IOException {
+        JsonToken token = p.getCurrentToken();
+
+        if (shape.ignored()) {
+            p.skipChildren();
+            return Json.jNull();
+        }
+
+        if (token == null)
+            throw new JsonParseException(p, "unexpected end of input");
+
+        switch (token) {
+            case START_OBJECT:
+                // a key that repeats keeps its first place and its last value
+                LinkedHashMap<String, Json.JValue> members = new LinkedHashMap<>();
+                String key;
+                while ((key = p.nextFieldName()) != null) {
+                    Shape member = shape.member(key);
+                    p.nextToken();
+                    if (member == null)
+                        p.skipChildren();
+                    else
+                        members.put(key, materialize(p, member));
+                }
+                return Json.jObject(members);
+            case START_ARRAY:
+                // skipped elements are kept as nulls, so that indexes don't change
+                ArrayList<Json.JValue> elements = new ArrayList<>();
+                for (int i = 0; p.nextToken() != JsonToken.END_ARRAY; i++) {
+                    Shape element = shape.element(i);
+                    if (element == null) {
+                        p.skipChildren();
+                        elements.add(Json.jNull());
+                    } else {
+                        elements.add(materialize(p, element));
+                    }
+                }
+                return Json.jArray(elements);
+            case VALUE_STRING:
+                return Json.jString(p.getText());
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return Json.jNumber(p.getDecimalValue());
+            case VALUE_TRUE:
+                return Json.jBoolean(true);
+            case VALUE_FALSE:
+                return Json.jBoolean(false);
+            case VALUE_NULL:
+                return Json.jNull();
+            default:
+                throw new JsonParseException(p, "unexpected token " + token);
+        }
+    }
+
+    /**
+     * Skips the remaining members of the object or array the parser is in, stops at its last token.
+     */
+    static void skipRest(JsonParser p) throws IOException {
+        JsonToken token;
+        while ((token = p.nextToken()) != null && !token.isStructEnd())
+            p.skipChildren();
+    }
+
+    static <T> Reader<T> field(String key, Decoder<T> member, Supplier<Either<DecodeError, T>> missing, Function<Json.JValue, Either<DecodeError, T>> tree) {
+        return p -> {
+            if (p.getCurrentToken() != JsonToken.START_OBJECT)
+                return fallback(p, tree);
+
+            Either<DecodeError, T> found = member(p, key, member);
+            return found == null
+                ? missing.get()
+                : found;
+        };
+    }
+
+    static <T> Reader<List<T>> list(Decoder<T> inner, Function<Json.JValue, Either<DecodeError, List<T>>> tree) {
+        return p -> {
+            if (p.getCurrentToken() != JsonToken.START_ARRAY)
+                return fallback(p, tree);
+
+            ArrayList<T> values = new ArrayList<>();
+            for (int i = 0; p.nextToken() != JsonToken.END_ARRAY; i++) {
+                Either<DecodeError, T> value = read(p, inner);
+                if (value.isLeft()) {
+                    skipRest(p);
+                    return left(DecodeError.element(i, value.getLeft()));
+                }
+                values.add(value.get());
+            }
+            return right(List.ofAll(values));
+        };
+    }
+
+    static <T> Reader<Map<String, T>> dict(Decoder<T> inner, UnaryOperator<String> keys, Function<Json.JValue, Either<DecodeError, Map<String, T>>> tree) {
+        return p -> {
+            if (p.getCurrentToken() != JsonToken.START_OBJECT)
+                return fallback(p, tree);
+
+            ArrayList<Tuple2<String, T>> entries = new ArrayList<>();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String key = p.getCurrentName();
+                p.nextToken();
+                Either<DecodeError, T> value = read(p, inner);
+                if (value.isLeft()) {
+                    skipRest(p);
+                    return left(DecodeError.key(key, value.getLeft()));
+                }
+                entries.add(Tuple.of(keys.apply(key), value.get()));
+            }
+            return right(HashMap.ofEntries(entries));
+        };
+    }
+
+    static <T, M extends java.util.Map<String, T>> Reader<M> javaDict(Decoder<T> inner, IntFunction<M> newMap, Function<Json.JValue, Either<DecodeError, M>> tree) {
+        return p -> {
+            if (p.getCurrentToken() != JsonToken.START_OBJECT)
+                return fallback(p, tree);
+
+            // the number of members isn't known up front
+            M entries = newMap.apply(16);
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String key = p.getCurrentName();
+                p.nextToken();
+                Either<DecodeError, T> value = read(p, inner);
+                if (value.isLeft()) {
+                    skipRest(p);
+                    return left(DecodeError.key(key, value.getLeft()));
+                }
+                entries.put(key, value.get());
+            }
+            return right(entries);
+        };
+    }
+
+    static <T> Reader<T> index(int index, Decoder<T> inner, Function<Json.JValue, Either<DecodeError, T>> tree) {
+        return p -> {
+            if (p.getCurrentToken() != JsonToken.START_ARRAY)
+                return fallback(p, tree);
+
+            for (int i = 0; p.nextToken() != JsonToken.END_ARRAY; i++) {
+                if (i == index) {
+                    Either<DecodeError, T> found = read(p, inner);
+                    skipRest(p);
+                    return found.mapLeft(err -> DecodeError.index(index, err));
+                }
+                p.skipChildren();
+            }
+            return left(DecodeError.index(index, MISSING));
+        };
+    }
+
+    /**
+     * Reads the member of the current object with the given key, returns {@code null} if the member is missing.
+     * Like in a {@link net.hamnaberg.json.Json.JObject}, the last member wins if the key is repeated.
+     */
+    private static <T> Either<DecodeError, T> member(JsonParser p, String key, Decoder<T> inner) throws IOException {
+        Either<DecodeError, T> found = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            boolean matches = key.equals(p.getCurrentName());
+            p.nextToken();
+            if (matches)
+                found = read(p, inner);
+            else
+                p.skipChildren();
+        }
+        return found;
+    }
+}
@@ -0,0 +1,147 @@
+package com.fredhonorio.json_decoder;
+
+/**
+ * An immutable map from {@code String} to {@code int} that stores the values in a primitive array, without boxing,
+ * as decoded by {@link Decoders#stringIntDict()} from objects like {@code {"views": 12, "likes": 3}}. Entries are
+ * kept in an open addressing table with linear probing, at most half full.
+ */
+public final class StringIntMap {
+    // null marks free slots
+    private final String[] keys;
+    private final int[] values;
+    private final int size;
+
+    private StringIntMap(Builder builder) {
+        this.keys = builder.keys;
+        this.values = builder.values;
+        this.size = builder.size;
+    }
+
+    /**
+     * Receives the entries of a map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(String key, int value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(String key) {
+        return keys[slot(keys, key)] != null;
+    }
+
+    /**
+     * The value for a key, or {@code defaultValue} if there's none.
+     */
+    public int getOrDefault(String key, int defaultValue) {
+        int slot = slot(keys, key);
+        return keys[slot] != null ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Calls a function with each entry, in no particular order.
+     */
+    public void forEach(EntryConsumer f) {
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != null)
+                f.accept(keys[i], values[i]);
+    }
+
+    /**
+     * The slot of a key, or the free slot where it would go.
+     */
+    private static int slot(String[] keys, String key) {
+        int mask = keys.length - 1;
+        int slot = OpenAddressing.hash(key) & mask;
+        while (keys[slot] != null && !keys[slot].equals(key))
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * Fills a map while decoding, the map only gets the entries once they're all in.
+     */
+    static final class Builder {
+        private String[] keys;
+        private int[] values;
+        private int size;
+
+        Builder(int expectedSize) {
+            int capacity = OpenAddressing.capacity(expectedSize);
+            keys = new String[capacity];
+            values = new int[capacity];
+        }
+
+        /**
+         * Adds or replaces an entry.
+         */
+        void put(String key, int value) {
+            int slot = slot(keys, key);
+            if (keys[slot] == null) {
+                if (OpenAddressing.isFull(size + 1, keys.length)) {
+                    grow();
+                    slot = slot(keys, key);
+                }
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] = value;
+        }
+
+        private void grow() {
+            String[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new String[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = slot(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        StringIntMap build() {
+            return new StringIntMap(this);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StringIntMap)) return false;
+        StringIntMap other = (StringIntMap) o;
+        if (size != other.size) return false;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                int slot = slot(other.keys, keys[i]);
+                if (other.keys[slot] == null || values[i] != other.values[slot])
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // like java.util.Map, independent of the order of the entries
+        int[] h = {0};
+        forEach((k, v) -> h[0] += k.hashCode() ^ Integer.hashCode(v));
+        return h[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.fredhonorio.json_decoder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicates strings, so that decoded values that repeat (e.g. country codes or map keys) share a single instance.
+ * Used by {@link Decoders#internedString(StringPool)} and {@link Decoders#internedDict(Decoder, StringPool)}.
+ * <p>
+ * The pool is bounded: once it holds {@code maxSize} strings, strings that aren't in it yet are returned as they are.
+ * Frequent values are usually seen early, so they still get pooled. Can be shared by several threads.
+ */
+public final class StringPool {
+    private static final StringPool SHARED = new StringPool(10_000);
+
+    private final int maxSize;
+    private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    public StringPool(int maxSize) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The pool used by the decoders that aren't given one, holds up to 10000 strings.
+     */
+    public static StringPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the pooled string equal to the given one, pooling it if there's room.
+     */
+    public String intern(String s) {
+        lookups.increment();
+        String pooled = strings.get(s);
+        if (pooled != null) {
+            hits.increment();
+            return pooled;
+        }
+
+        // may go over the bound by a few strings when several threads add at once
+        if (strings.size() >= maxSize)
+            return s;
+
+        pooled = strings.putIfAbsent(s, s);
+        if (pooled != null) {
+            hits.increment();
+            return pooled;
+        }
+        return s;
+    }
+
+    /**
+     * How many strings were looked up.
+     */
+    public long lookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * How many strings were replaced by a pooled one.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * The fraction of the looked up strings that were replaced by a pooled one.
+     */
+    public double dedupRatio() {
+        long n = lookups();
+        return n == 0 ? 0 : (double) hits() / n;
+    }
+
+    /**
+     * How many strings are pooled.
+     */
+    public int size() {
+        return strings.size();
+    }
+}
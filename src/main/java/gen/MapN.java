@@ -1,15 +1,44 @@
 package gen;
 
 import io.vavr.collection.List;
-import io.vavr.collection.Stream;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates {@code Decoder.map2} to {@code Decoder.map22}, and the function interfaces that vavr doesn't have for
+ * the larger arities. Run by the {@code generateMapN} gradle task with the directory of the decoder sources, and by
+ * {@code checkMapN} (part of {@code check}) to verify that the checked in code is up to date.
+ */
 class MapN {
 
+    private static final int MAX = 22;
+
+    // vavr has functions up to this arity
+    private static final int VAVR_MAX = 8;
+
+    private static final String BEGIN = "    // generated\n    // @formatter:off\n";
+    private static final String END = "    // @formatter:on\n";
+
+    private static List<String> typeVars(int n) {
+        return List.range('A', (char) ('A' + n)).map(Object::toString);
+    }
+
+    private static String functionType(int n) {
+        return n <= VAVR_MAX
+            ? "Function" + n
+            : "Functions.Function" + n;
+    }
+
     private static String mapN(int n) {
 
         String finalType = "TT";
 
-        List<String> decoderTypeVars = List.range('A', (char) ('A' + n)).map(Object::toString);
+        List<String> decoderTypeVars = typeVars(n);
         List<String> decoders = decoderTypeVars.map(v -> "d" + v);
         List<String> allTypeVars = decoderTypeVars.append(finalType);
 
@@ -21,35 +50,113 @@ class MapN {
             + "("
             + decoderTypeVars.zip(decoders)
                 .map(t -> "Decoder<" + t._1 + "> " + t._2)
-                .append("Function" + n + allTypeVars.mkString("<", ", ", ">") + " f")
+                .append(functionType(n) + allTypeVars.mkString("<", ", ", ">") + " f")
                 .mkString(", ")
             + ") {";
         // @formatter:on
 
+        String slots = decoderTypeVars.zipWithIndex()
+            .map(t -> "(" + t._1 + ") v[" + t._2 + "]")
+            .mkString(", ");
+
+        // each decoder is applied once, in order, and the first failure is returned
         List<String> body = List
-            .of("\treturn root ->")
-            .appendAll(
-                decoders.dropRight(1)
-                    .map(v -> "\t\t" + v + ".apply(root).flatMap(_" + v + " ->"))
-            .appendAll(decoders.lastOption()
-                .map(v -> "\t\t" + v + ".apply(root).map(_" + v + " ->"))
-            .append("\t\t\t" + "f.apply(" + decoders.map(d -> "_" + d).mkString(", ") + ")")
-            .append("\t\t" + Stream.continually(")").take(n).mkString() + ";")
+            .of("\tDecoder<" + finalType + "> fields = Fields.compile(v -> f.apply(" + slots + "), " + decoders.mkString(", ") + ");")
+            .append("\tif (fields != null)")
+            .append("\t\treturn fields;")
+            .append("")
+            .append("\treturn Node.of(Shape.union(" + decoders.mkString(", ") + "), root -> {")
+            .appendAll(decoderTypeVars.flatMap(v -> List.of(
+                "\t\tEither<DecodeError, " + v + "> _d" + v + " = d" + v + ".decode(root);",
+                "\t\tif (_d" + v + ".isLeft()) return left(_d" + v + ".getLeft());")))
+            .append("\t\treturn right(f.apply(" + decoders.map(d -> "_" + d + ".get()").mkString(", ") + "));")
+            .append("\t});")
             .append("}");
 
-        return List.of(declaration)
+        return List.of("@SuppressWarnings(\"unchecked\")", declaration)
             .appendAll(body)
+            .map(s -> s.isEmpty() ? s : "\t" + s)
+            .map(s -> s.replace("\t", "    "))
+            .mkString("\n");
+    }
+
+    private static String function(int n) {
+        // named like vavr's
+        List<Integer> args = List.rangeClosed(1, n);
+
+        return List.of(
+            "@FunctionalInterface",
+            "public interface Function" + n + args.map(i -> "T" + i).append("R").mkString("<", ", ", ">") + " {",
+            "\tR apply(" + args.map(i -> "T" + i + " t" + i).mkString(", ") + ");",
+            "}")
             .map(s -> "\t" + s)
             .map(s -> s.replace("\t", "    "))
             .mkString("\n");
     }
 
-    public static void main(String[] args) {
-        List.rangeClosed(2, 8)
+    private static String functions() {
+        return List.of(
+            "package com.fredhonorio.json_decoder;",
+            "",
+            "// generated by gen.MapN, do not edit",
+            "/**",
+            " * Functions of more arguments than vavr provides, used by {@link Decoder#map9} to {@link Decoder#map" + MAX + "}.",
+            " */",
+            "public final class Functions {",
+            "    private Functions() {",
+            "    }",
+            "")
+            .appendAll(List.rangeClosed(VAVR_MAX + 1, MAX).map(MapN::function).intersperse(""))
+            .append("}")
+            .mkString("", "\n", "\n");
+    }
+
+    private static String decoder(String source) {
+        int begin = source.indexOf(BEGIN);
+        int end = source.indexOf(END);
+        if (begin < 0 || end < begin)
+            throw new IllegalStateException("can't find the generated section in Decoder.java");
+
+        String generated = List.rangeClosed(2, MAX)
             .map(MapN::mapN)
-            .intersperse(" ")
-            .forEach(System.out::println);
+            .mkString("", "\n\n", "\n");
+
+        return source.substring(0, begin + BEGIN.length()) + generated + source.substring(end);
     }
 
+    /**
+     * Writes the generated code into the sources in the given directory or, given {@code --check} first, fails if
+     * they aren't up to date.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean check = args[0].equals("--check");
+        Path dir = Paths.get(args[check ? 1 : 0]);
+        Path decoder = dir.resolve("Decoder.java");
+        Path functions = dir.resolve("Functions.java");
 
+        String source = read(decoder);
+        String generatedDecoder = decoder(source);
+        String generatedFunctions = functions();
+
+        if (check) {
+            List<Path> stale = List.of(decoder, functions)
+                .zip(List.of(generatedDecoder, generatedFunctions))
+                .filter(file -> !Files.exists(file._1) || !read(file._1).equals(file._2))
+                .map(file -> file._1);
+            if (!stale.isEmpty())
+                throw new IllegalStateException("out of date, run gradle generateMapN: " + stale.mkString(", "));
+            return;
+        }
+
+        Files.write(decoder, generatedDecoder.getBytes(StandardCharsets.UTF_8));
+        Files.write(functions, generatedFunctions.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) {
+        try {
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
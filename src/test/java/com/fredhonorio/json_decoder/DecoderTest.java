@@ -2,9 +2,14 @@ package com.fredhonorio.json_decoder;
 
 import io.vavr.*;
 import io.vavr.collection.List;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import net.hamnaberg.json.Json;
 import org.junit.*;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.fredhonorio.json_decoder.Decoders.*;
 import static com.fredhonorio.json_decoder.Decoders.Integer;
 import static com.fredhonorio.json_decoder.Decoders.String;
@@ -77,6 +82,91 @@ public class DecoderTest {
         assertValue(List.range(0, 8).mkString("[", ",", "]"), dec8, Tuple.of(0, 1, 2, 3, 4, 5, 6, 7));
     }
 
+    @Test
+    public void testMap22() {
+        Decoder<List<Integer>> dec22 = Decoder.map22(
+            index(0, Integer), index(1, Integer), index(2, Integer), index(3, Integer), index(4, Integer),
+            index(5, Integer), index(6, Integer), index(7, Integer), index(8, Integer), index(9, Integer),
+            index(10, Integer), index(11, Integer), index(12, Integer), index(13, Integer), index(14, Integer),
+            index(15, Integer), index(16, Integer), index(17, Integer), index(18, Integer), index(19, Integer),
+            index(20, Integer), index(21, Integer),
+            (a, b, c, d, e, f, g, h, i, j, k, l, m, n, o, p, q, r, s, t, u, v) ->
+                List.of(a, b, c, d, e, f, g, h, i, j, k, l, m, n, o, p, q, r, s, t, u, v));
+
+        assertValue(List.range(0, 22).mkString("[", ",", "]"), dec22, List.range(0, 22));
+        assertError(List.range(0, 21).mkString("[", ",", "]"), dec22, "at index 21: missing");
+
+        AtomicInteger count = new AtomicInteger(0);
+        Decoder<Integer> counted = Integer.map(x -> {
+            count.incrementAndGet();
+            return x;
+        });
+
+        Decoder<String> dec9 = Decoder.map9(
+            index(0, counted), index(1, counted), index(2, String), index(3, counted), index(4, counted),
+            index(5, counted), index(6, counted), index(7, counted), index(8, counted),
+            (a, b, c, d, e, f, g, h, i) -> c);
+
+        assertError("[0, 1, 2, 3, 4, 5, 6, 7, 8]", dec9, "at index 2: expected String, got JNumber{value=2}");
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testMapNFields() {
+        Decoder<Tuple4<String, Integer, Option<Integer>, Integer>> dec = Decoder.map4(
+            field("a", String),
+            field("b", Integer).mapError(err -> "bad b, " + err),
+            optionalField("c", Integer),
+            at(List.of("d", "e"), Integer),
+            Tuple::of);
+
+        assertValue("{\"a\": \"x\", \"b\": 1, \"d\": {\"e\": 2}}", dec, Tuple.of("x", 1, Option.none(), 2));
+        assertValue("{\"d\": {\"e\": 2}, \"c\": 3, \"b\": 1, \"a\": \"x\"}", dec, Tuple.of("x", 1, Option.some(3), 2));
+        assertError("1", dec, "expected JObject, got JNumber{value=1}");
+        assertError("{\"a\": \"x\"}", dec, "bad b, field 'b': missing");
+        assertError("{\"a\": \"x\", \"b\": 1, \"c\": \"3\"}", dec, "field 'c': expected BigDecimal, got JString{value='3'}");
+        assertError("{\"a\": \"x\", \"b\": 1, \"d\": 1}", dec, "field 'd': expected JObject, got JNumber{value=1}");
+        assertError("{\"b\": \"1\", \"a\": 1}", dec, "field 'a': expected String, got JNumber{value=1}");
+
+        Decoder<Integer> dec10 = Decoder.map10(
+            field("a", Integer), field("b", Integer), field("c", Integer), field("d", Integer), field("e", Integer),
+            field("f", Integer), field("g", Integer), field("h", Integer), field("i", Integer), field("j", Integer),
+            (a, b, c, d, e, f, g, h, i, j) -> a + b + c + d + e + f + g + h + i + j);
+
+        assertValue("{\"a\": 1, \"b\": 1, \"c\": 1, \"d\": 1, \"e\": 1, \"f\": 1, \"g\": 1, \"h\": 1, \"i\": 1, \"j\": 1}", dec10, 10);
+        assertError("{\"a\": 1, \"b\": 1, \"c\": 1, \"d\": 1, \"e\": 1, \"f\": 1, \"g\": 1, \"h\": 1, \"i\": 1}", dec10, "field 'j': missing");
+
+        Decoder<Tuple2<Integer, Integer>> sameField = Decoder.map2(
+            field("a", index(0, Integer)),
+            field("a", index(1, Integer)),
+            Tuple::of);
+
+        assertValue("{\"a\": [1, 2]}", sameField, Tuple.of(1, 2));
+        assertError("{\"a\": [1]}", sameField, "field 'a': at index 1: missing");
+    }
+
+    @Test
+    public void testMapNFieldsReadTwice() {
+        // "a" is read by two decoders
+        Decoder<Tuple4<String, Integer, Integer, Integer>> dec = Decoder.map4(
+            field("a", String),
+            field("b", Integer).map(b -> b * 2),
+            at(List.of("c", "d"), Integer),
+            field("a", String).map(java.lang.String::length),
+            Tuple::of);
+        List<String> inputs = List.of(
+            "{\"a\": \"x\", \"b\": 1, \"c\": {\"d\": 2}}",
+            "{\"a\": \"x\", \"b\": \"1\", \"c\": {\"d\": 2}}",
+            "{\"a\": \"x\", \"b\": 1, \"c\": {}}",
+            "{\"a\": 1}",
+            "[]");
+        List<Either<String, Tuple4<String, Integer, Integer, Integer>>> results = inputs.map(json -> decodeString(json, dec));
+        assertEquals(results, inputs.map(json -> decodeStreaming(json, dec)));
+        assertEquals(Either.right(Tuple.of("x", 2, 2, 1)), results.head());
+        assertEquals(Either.left("field 'b': expected BigDecimal, got JString{value='1'}"), results.get(1));
+        assertEquals(Either.left("field 'c': field 'd': missing"), results.get(2));
+    }
+
     @Test
     public void testOrElse() {
         assertValue("1", Integer.orElse(String.map(java.lang.Integer::parseInt)), 1);
@@ -109,6 +199,88 @@ public class DecoderTest {
         assertError("\"\"", fail, "can't work");
     }
 
+    @Test
+    public void mapResult() throws Exception {
+        Decoder<Integer> parsed = String.mapResult(s -> s.matches("-?[0-9]{1,9}")
+            ? Either.right(java.lang.Integer.parseInt(s))
+            : Either.left("not a number: " + s));
+
+        assertValue("\"12\"", parsed, 12);
+        assertError("\"1x\"", parsed, "not a number: 1x");
+        assertError("1", parsed, "expected String, got JNumber{value=1}");
+        assertEquals(Either.left("field 'a': not a number: x"), decodeStreaming("{\"a\": \"x\"}", field("a", parsed)));
+    }
+
+    @Test
+    public void decodeError() throws Exception {
+        DecodeError err = field("a", list(Integer)).decode(Json.jObject(Json.tuple("a", Json.jArray(Json.jNumber(1), Json.jString("2"))))).getLeft();
+
+        assertEquals(List.of("field 'a'", "array element #1"), err.path());
+        assertEquals(Option.some("BigDecimal"), err.expected());
+        assertEquals(Option.some(Json.jString("2")), err.value());
+        assertEquals("field 'a': array element #1: expected BigDecimal, got JString{value='2'}", err.message());
+    }
+
+    @Test
+    public void lazyErrors() throws Exception {
+        AtomicInteger rendered = new AtomicInteger(0);
+        Decoder<Integer> counted = Integer.mapError(err -> {
+            rendered.incrementAndGet();
+            return err;
+        });
+
+        assertValue("null", nullable(counted, 0), 0);
+        assertValue("\"1\"", oneOf(counted, String.map(java.lang.Integer::parseInt)), 1);
+        assertEquals(0, rendered.get());
+
+        assertError("\"a\"", oneOf(counted, Boolean.map(b -> 0)), "attempted multiple decoders, all failed: (expected BigDecimal, got JString{value='a'}), (expected Boolean, got JString{value='a'})");
+        assertEquals(1, rendered.get());
+    }
+
+    @Test
+    public void cached() throws Exception {
+        AtomicInteger decoded = new AtomicInteger();
+        CachedDecoder<String> tier = field("name", String)
+            .map(n -> {
+                decoded.incrementAndGet();
+                return n;
+            })
+            .cached(2);
+
+        String json = "[{\"name\": \"a\"}, {\"name\": \"b\"}, {\"name\": \"a\"}, {\"name\": \"c\"}, {\"name\": \"b\"}, {}, {}]";
+        assertValue(json.replace(", {}, {}", ""), list(tier), List.of("a", "b", "a", "c", "b"));
+        assertEquals(4, decoded.get());
+        assertEquals(1, tier.hits());
+        assertEquals(4, tier.misses());
+        assertEquals(2, tier.evictions());
+        assertEquals(2, tier.size());
+
+        assertError(json, list(tier), "array element #5: field 'name': missing");
+        // only "name" is read, so the other members don't matter
+        assertEquals(Either.right(List.of("b")), decodeStreaming("[{\"name\": \"b\", \"x\": 1}]", list(tier)));
+        assertEquals(4, tier.hits());
+    }
+
+    @Test
+    public void map() throws Exception {
+        Decoder<String> chain = Integer.map(i -> i + 1).map(i -> i * 2).map(Object::toString);
+        assertTrue(((MappedNode<?, ?>) chain).source == Integer);
+        assertValue("1", chain, "4");
+        assertEquals(Either.right("4"), decodeStreaming("1", chain));
+        assertError("\"1\"", chain, "expected BigDecimal, got JString{value='1'}");
+
+        // maps of a field stay a field, mapped inside
+        Decoder<String> field = field("a", Integer).map(i -> i + 1).map(Object::toString);
+        assertTrue(((FieldNode<?>) field).member instanceof MappedNode);
+        assertValue("{\"a\": 1}", field, "2");
+        assertError("{}", field, "field 'a': missing");
+        assertValue("{}", optionalField("a", Integer, 0).map(i -> i + 1), 1);
+
+        // decoders that aren't built by the library are mapped too
+        Decoder<Integer> custom = json -> Either.right(1);
+        assertValue("null", custom.map(i -> i + 1).map(i -> i + 1), 3);
+    }
+
     @Test
     public void widen() {
         Decoder<Number> num = Decoder.widen(Integer);
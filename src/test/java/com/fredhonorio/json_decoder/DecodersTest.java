@@ -3,6 +3,8 @@ package com.fredhonorio.json_decoder;
 import io.vavr.Tuple;
 import io.vavr.collection.HashMap;
 import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.control.Either;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
 import net.hamnaberg.json.Json;
@@ -28,6 +30,7 @@ import static java.util.function.Predicate.isEqual;
 import static io.vavr.control.Option.none;
 import static io.vavr.control.Option.some;
 import static net.hamnaberg.json.Json.jObject;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -42,7 +45,20 @@ public class DecodersTest {
         assertValue("-2147483648", Integer, java.lang.Integer.MIN_VALUE);
         assertError("\"1\"", Integer, "expected BigDecimal, got JString{value='1'}");
 
+        assertValue("1.0", Integer, 1);
+        assertValue("1e2", Integer, 100);
+        assertValue("-0", Integer, 0);
+        assertError("1.5", Integer, "Rounding necessary");
+        assertError("0.5", Integer, "Rounding necessary");
+        assertError("1e10", Integer, "Overflow");
+
         assertValue("1", Long, 1L);
+        assertValue("9223372036854775807", Long, java.lang.Long.MAX_VALUE);
+        assertValue("-9223372036854775808", Long, java.lang.Long.MIN_VALUE);
+        assertValue("9223372036854775807.0", Long, java.lang.Long.MAX_VALUE);
+        assertError("9223372036854775808", Long, "Overflow");
+        assertError("12345678901234567890.5", Long, "Overflow");
+        assertError("1.25", Long, "Rounding necessary");
         assertError("\"1\"", Long, "expected BigDecimal, got JString{value='1'}");
 
         assertValue("1", Float, 1F);
@@ -62,6 +78,35 @@ public class DecodersTest {
         assertError("1", String, "expected String, got JNumber{value=1}");
     }
 
+    @Test
+    public void testInterning() {
+        StringPool pool = new StringPool(2);
+        List<String> codes = decodeString("[\"PT\", \"FR\", \"PT\", \"ES\", \"ES\", \"FR\"]", list(internedString(pool))).get();
+
+        assertEquals(List.of("PT", "FR", "PT", "ES", "ES", "FR"), codes);
+        assertTrue(codes.get(0) == codes.get(2));
+        assertTrue(codes.get(1) == codes.get(5));
+        // the pool was full
+        assertTrue(codes.get(3) != codes.get(4));
+        assertEquals(6, pool.lookups());
+        assertEquals(2, pool.hits());
+        assertEquals(2, pool.size());
+        assertEquals(1 / 3D, pool.dedupRatio(), 0);
+
+        assertError("1", internedString(pool), "expected String, got JNumber{value=1}");
+
+        Decoder<List<Map<String, Integer>>> maps = list(internedDict(Integer, pool));
+        for (Function<String, Either<String, List<Map<String, Integer>>>> decode : List.<Function<String, Either<String, List<Map<String, Integer>>>>>of(
+            json -> decodeString(json, maps),
+            json -> decodeStreaming(json, maps))) {
+
+            List<Map<String, Integer>> decoded = decode.apply("[{\"PT\": 1}, {\"PT\": 2}]").get();
+            assertEquals(List.of(HashMap.of("PT", 1), HashMap.of("PT", 2)), decoded);
+            assertTrue(decoded.get(0).iterator().next()._1 == decoded.get(1).iterator().next()._1);
+        }
+        assertError("{\"a\": \"1\"}", internedDict(Integer), "dict key 'a': expected BigDecimal, got JString{value='1'}");
+    }
+
     @Test
     public void testNull() {
         assertValue("null", nullValue(1), 1);
@@ -170,6 +215,49 @@ public class DecodersTest {
         assertError("{ \"a\": 1 }", optionalFieldWithDefault, "field 'a': expected String, got JNumber{value=1}");
     }
 
+    @Test
+    public void testNullableDecodesOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        Decoder<Integer> counted = json -> {
+            calls.incrementAndGet();
+            return Integer.apply(json);
+        };
+
+        assertValue("1", nullable(counted), some(1));
+        assertValue("null", nullable(counted), none());
+        assertValue("1", option(counted), some(1));
+        assertValue("\"a\"", option(counted), none());
+        assertEquals(4, calls.get());
+
+        assertValue("null", nullable(JNull), some(Json.jNull()));
+        assertError("\"a\"", nullable(Integer, 0), "attempted multiple decoders, all failed: " +
+            "(expected BigDecimal, got JString{value='a'}), " +
+            "(expected JNull, got JString{value='a'})");
+        assertEquals(Either.right(List.of(some(1), none())), decodeStreaming("[1, null]", list(nullable(Integer))));
+        assertEquals(Either.right(List.of(some(1), none())), decodeStreaming("[1, \"a\"]", list(option(Integer))));
+
+        // arrays and objects are streamed to the inner decoder, and fail like it
+        AtomicInteger trees = new AtomicInteger();
+        Decoder<List<Integer>> streamed = Node.of(Shape.ALL, v -> {
+            trees.incrementAndGet();
+            return list(Integer).decode(v);
+        }, p -> Streaming.read(p, list(Integer))).accepting(Kinds.ARRAY);
+        for (String json : List.of("[1, 2]", "null", "{\"a\": 1}", "\"a\"", "true")) {
+            Either<String, Option<List<Integer>>> tree = decodeString(json, nullable(list(Integer)));
+            assertEquals(tree, decodeStreaming(json, nullable(list(Integer))));
+            assertEquals(tree, decodeStreaming(json, nullable(streamed)));
+        }
+        assertEquals(
+            Either.left("attempted multiple decoders, all failed: " +
+                "(array element #1: expected BigDecimal, got JString{value='a'}), " +
+                "(expected JNull, got JArray{value=List(JNumber{value=1}, JString{value='a'})})"),
+            decodeString("[1, \"a\"]", nullable(list(Integer))));
+        trees.set(0);
+        assertEquals(Either.right(some(List.of(1, 2))), decodeStreaming("[1, 2]", nullable(streamed)));
+        assertEquals(Either.left("array element #1: expected BigDecimal, got JString{value='a'}"), decodeStreaming("[1, \"a\"]", nullable(streamed)));
+        assertEquals(0, trees.get());
+    }
+
     @Test
     public void testList() {
         assertValue("[1, 2 ,3]", list(Integer), List.of(1, 2, 3));
@@ -245,6 +333,116 @@ public class DecodersTest {
         assertEquals(3, count.get());
     }
 
+    @Test
+    public void testPrimitiveArrays() {
+        assertArrayEquals(new int[]{1, 2, 3}, decodeString("[1, 2, 3.0]", intArray()).get());
+        assertArrayEquals(new int[0], decodeString("[]", intArray()).get());
+        assertArrayEquals(new long[]{1, java.lang.Long.MAX_VALUE}, decodeString("[1, 9223372036854775807]", longArray()).get());
+        assertArrayEquals(new float[]{0.5F, 1F}, decodeString("[0.5, 1]", floatArray()).get(), 0);
+        assertArrayEquals(new double[]{0.5D, 1D}, decodeString("[0.5, 1]", doubleArray()).get(), 0);
+
+        assertError("[1, \"2\" ,3]", intArray(), "array element #1: expected BigDecimal, got JString{value='2'}");
+        assertError("[1, 2147483648]", intArray(), "array element #1: Overflow");
+        assertError("[1, 1.5]", longArray(), "array element #1: Rounding necessary");
+        assertError("[null]", doubleArray(), "array element #0: expected BigDecimal, got JNull");
+        assertError("1", floatArray(), "expected JArray, got JNumber{value=1}");
+    }
+
+    @Test
+    public void testParList() {
+        List<Integer> numbers = List.range(0, 100);
+        String json = numbers.mkString("[", ", ", "]");
+
+        assertValue(json, parList(Integer, 8), numbers);
+        assertValue(json, parList(Integer), numbers);
+        assertValue("[]", parList(Integer, 8), List.empty());
+
+        String failing = numbers.map(i -> i % 30 == 29 ? "\"" + i + "\"" : i.toString()).mkString("[", ", ", "]");
+        assertError(failing, parList(Integer, 8), "array element #29: expected BigDecimal, got JString{value='29'}");
+        assertError("1", parList(Integer, 8), "expected JArray, got JNumber{value=1}");
+    }
+
+    @Test
+    public void testParDict() {
+        List<Integer> numbers = List.range(0, 100);
+        String json = numbers.map(i -> "\"" + i + "\": " + i).mkString("{", ", ", "}");
+
+        assertValue(json, parDict(Integer, 8), HashMap.ofEntries(numbers.map(i -> Tuple.of(i.toString(), i))));
+        assertValue("{}", parDict(Integer, 8), HashMap.empty());
+        assertError("{ \"a\": 1, \"b\": \"2\", \"c\": \"3\" }", parDict(Integer, 1), "dict key 'b': expected BigDecimal, got JString{value='2'}");
+        assertError("1", parDict(Integer, 8), "expected JObject, got JNumber{value=1}");
+    }
+
+    @Test
+    public void testTagged() {
+        AtomicInteger squares = new AtomicInteger();
+        Decoder<Object> shape = tagged("type", HashMap.of(
+            "circle", field("radius", Integer),
+            "square", field("side", String).map(s -> {
+                squares.incrementAndGet();
+                return s;
+            })));
+
+        assertValue("{ \"type\": \"circle\", \"radius\": 1 }", shape, 1);
+        assertValue("{ \"type\": \"square\", \"side\": \"a\" }", shape, "a");
+        assertError("{ \"type\": \"circle\", \"side\": \"a\" }", shape, "field 'radius': missing");
+        assertError("{ \"type\": \"triangle\" }", shape, "field 'type': unknown tag 'triangle', expected one of circle, square");
+        assertError("{ \"type\": 1 }", shape, "field 'type': expected String, got JNumber{value=1}");
+        assertError("{}", shape, "field 'type': missing");
+        assertEquals(1, squares.get());
+
+        assertEquals(Either.right(1), decodeStreaming("{ \"radius\": 1, \"type\": \"circle\" }", shape));
+    }
+
+    @Test
+    public void testKinds() {
+        assertEquals(Kinds.NUMBER, Kinds.of(Integer.map(i -> i + 1)));
+        assertEquals(Kinds.NUMBER | Kinds.NULL, Kinds.of(nullable(Integer)));
+        assertEquals(Kinds.ANY, Kinds.of(option(Integer)));
+        assertEquals(Kinds.OBJECT, Kinds.of(optionalField("a", Integer)));
+        assertEquals(Kinds.ARRAY | Kinds.STRING, Kinds.of(oneOf(list(String).map(List::mkString), String)));
+        assertEquals(Kinds.ANY, Kinds.of(String.andThen(Decoders::succeed)));
+
+        // skipped alternatives fail the same way
+        Decoder<String> skipped = oneOf(list(String).map(List::mkString), field("a", String), Boolean.map(Object::toString));
+        Either<DecodeError, String> result = skipped.decode(Json.jString("x"));
+        assertEquals(
+            "attempted multiple decoders, all failed: " +
+                "(expected JArray, got JString{value='x'}), " +
+                "(expected JObject, got JString{value='x'}), " +
+                "(expected Boolean, got JString{value='x'})",
+            result.getLeft().message());
+
+        // skipped alternatives aren't run, even to work out their messages
+        CachedDecoder<String> cached = list(String).map(List::mkString).cached(10);
+        Decoder<String> claimsArrays = Node.<String>of(Shape.ALL, v -> Either.right("decoded")).accepting(Kinds.ARRAY);
+        Either<DecodeError, String> skippedBoth = oneOf(cached, claimsArrays, Integer.map(Object::toString)).decode(Json.jString("x"));
+        assertEquals(
+            "attempted multiple decoders, all failed: " +
+                "(expected JArray, got JString{value='x'}), " +
+                "(expected JArray, got JString{value='x'}), " +
+                "(expected BigDecimal, got JString{value='x'})",
+            skippedBoth.getLeft().message());
+        assertEquals(0, cached.misses());
+
+        // decoders of several kinds are run, so their failures are the real ones
+        assertEquals(
+            Either.left("attempted multiple decoders, all failed: " +
+                "(attempted multiple decoders, all failed: (expected BigDecimal, got JString{value='x'}), (expected JNull, got JString{value='x'})), " +
+                "(expected Boolean, got JString{value='x'})"),
+            oneOf(nullable(Integer).map(Object::toString), Boolean.map(Object::toString)).apply(Json.jString("x")));
+        assertEquals(
+            Either.left("attempted multiple decoders, all failed: " +
+                "(attempted multiple decoders, all failed: (expected String, got JBoolean{value=true}), (expected BigDecimal, got JBoolean{value=true})), " +
+                "(x)"),
+            oneOf(oneOf(String, Integer.map(Object::toString)), Decoders.<String>fail("x")).apply(Json.jBoolean(true)));
+
+        // errors changed by mapError aren't the usual ones, so those decoders are run
+        Decoder<String> custom = oneOf(list(String).map(List::mkString).mapError(e -> "not a list"), Boolean.map(Object::toString));
+        assertEquals(Kinds.ANY, Kinds.of(field("a", String).mapError(e -> e)));
+        assertEquals(Either.left("attempted multiple decoders, all failed: (not a list), (expected Boolean, got JString{value='x'})"), custom.apply(Json.jString("x")));
+    }
+
     @Test
     public void testOneOf() {
 
@@ -319,6 +517,87 @@ public class DecodersTest {
         );
     }
 
+    @Test
+    public void testJavaDict() {
+        String json = "{ \"c\": 1, \"a\": 2, \"b\": 3 }";
+        java.util.LinkedHashMap<String, Integer> expected = new java.util.LinkedHashMap<>();
+        expected.put("c", 1);
+        expected.put("a", 2);
+        expected.put("b", 3);
+
+        assertValue(json, hashMapDict(Integer), new java.util.HashMap<>(expected));
+        assertEquals(List.of("c", "a", "b"), List.ofAll(decodeString(json, linkedHashMapDict(Integer)).get().keySet()));
+        assertEquals(List.of("c", "a", "b"), List.ofAll(decodeStreaming(json, linkedHashMapDict(Integer)).get().keySet()));
+
+        AtomicInteger sizes = new AtomicInteger();
+        Decoder<java.util.TreeMap<String, Integer>> sorted = dict(Integer, size -> {
+            sizes.set(size);
+            return new java.util.TreeMap<>();
+        });
+        assertValue(json, sorted, new java.util.TreeMap<>(expected));
+        assertEquals(3, sizes.get());
+
+        AtomicInteger decoded = new AtomicInteger();
+        Decoder<java.util.HashMap<String, Integer>> counted = hashMapDict(Integer.map(i -> decoded.incrementAndGet()));
+        assertError("{ \"a\": 1, \"b\": \"2\", \"c\": 3 }", counted, "dict key 'b': expected BigDecimal, got JString{value='2'}");
+        assertEquals(Either.left("dict key 'b': expected BigDecimal, got JString{value='2'}"), decodeStreaming("{ \"a\": 1, \"b\": \"2\", \"c\": 3 }", counted));
+        assertEquals(2, decoded.get());
+        assertError("1", hashMapDict(Integer), "expected JObject, got JNumber{value=1}");
+    }
+
+    @Test
+    public void testPrimitiveDicts() {
+        String json = "{ \"-9223372036854775808\": 1, \"0\": 2.5, \"7\": 3 }";
+        assertValue(json, longKeyDict(Double), HashMap.of(java.lang.Long.MIN_VALUE, 1.0, 0L, 2.5, 7L, 3.0));
+        assertEquals(decodeString(json, longKeyDict(Double)), decodeStreaming(json, longKeyDict(Double)));
+        assertValue("{ \"2147483647\": \"a\" }", intKeyDict(String), HashMap.of(2147483647, "a"));
+
+        // so are keys with a + sign or leading zeros, and "-0": "07" would collide with "7"
+        for (String key : List.of("9223372036854775808", "1.0", "", "-", "1e3", " 1", "\u0661", "07", "+7", "-0", "00")) {
+            String bad = "{ \"1\": 1, \"" + key + "\": { \"x\": [1] }, \"2\": 2 }";
+            String expected = "dict key '" + key + "': not a Long";
+            assertError(bad, longKeyDict(Integer), expected);
+            assertError(bad, longDoubleDict(), expected);
+            assertEquals(Either.left(expected), decodeStreaming(bad, longKeyDict(Integer)));
+            assertEquals(Either.left(expected), decodeStreaming(bad, longDoubleDict()));
+        }
+        assertError("{ \"2147483648\": 1 }", intKeyDict(Integer), "dict key '2147483648': not an Integer");
+        assertError("{ \"2147483648\": 1 }", intLongDict(), "dict key '2147483648': not an Integer");
+        assertError("{ \"7\": 1, \"07\": 2 }", intKeyDict(Integer), "dict key '07': not an Integer");
+        assertError("{ \"7\": 1, \"+7\": 2 }", intLongDict(), "dict key '+7': not an Integer");
+        assertValue("{ \"-2147483648\": 1, \"0\": 2 }", intKeyDict(Integer), HashMap.of(java.lang.Integer.MIN_VALUE, 1, 0, 2));
+        assertError("{ \"1\": \"a\" }", longKeyDict(Integer), "dict key '1': expected BigDecimal, got JString{value='a'}");
+
+        LongDoubleMap longDoubles = decodeString(json, longDoubleDict()).get();
+        assertEquals(3, longDoubles.size());
+        assertEquals(2.5, longDoubles.getOrDefault(0, -1), 0);
+        assertEquals(1.0, longDoubles.getOrDefault(java.lang.Long.MIN_VALUE, -1), 0);
+        assertEquals(-1, longDoubles.getOrDefault(8, -1), 0);
+        assertTrue(longDoubles.containsKey(7));
+        assertEquals(longDoubles, decodeStreaming(json, longDoubleDict()).get());
+        assertEquals(longDoubles.hashCode(), decodeStreaming(json, longDoubleDict()).get().hashCode());
+
+        // more entries than the initial capacity of the streaming decoder
+        StringBuilder many = new StringBuilder("{");
+        for (int i = 0; i < 100; i++)
+            many.append(i == 0 ? "" : ",").append('"').append(i * 31).append("\": ").append(i);
+        String manyJson = many.append('}').toString();
+        IntLongMap intLongs = decodeStreaming(manyJson, intLongDict()).get();
+        assertEquals(100, intLongs.size());
+        assertEquals(99, intLongs.getOrDefault(99 * 31, -1));
+        assertEquals(decodeString(manyJson, intLongDict()).get(), intLongs);
+        assertEquals(Either.left("dict key '2': Overflow"), decodeStreaming("{ \"1\": 1, \"2\": 1e30 }", intLongDict()));
+        assertError("{ \"1\": 1, \"2\": 1e30 }", intLongDict(), "dict key '2': Overflow");
+
+        StringIntMap stringInts = decodeString("{ \"views\": 12, \"likes\": 3 }", stringIntDict()).get();
+        assertEquals(12, stringInts.getOrDefault("views", 0));
+        assertEquals(0, stringInts.getOrDefault("shares", 0));
+        assertEquals(stringInts, decodeStreaming("{ \"likes\": 3, \"views\": 12 }", stringIntDict()).get());
+        assertError("{ \"views\": 1.5 }", stringIntDict(), "dict key 'views': Rounding necessary");
+        assertEquals(Either.left("dict key 'views': Rounding necessary"), decodeStreaming("{ \"views\": 1.5 }", stringIntDict()));
+        assertError("1", stringIntDict(), "expected JObject, got JNumber{value=1}");
+    }
+
     @Test
     public void testNullable() {
         assertValue("1", nullable(Integer), Option.of(1));
@@ -346,6 +625,33 @@ public class DecodersTest {
         );
 
         assertValue("1", at(List.empty(), Integer), 1);
+
+        // nested fields are a single path
+        Decoder<Integer> abc = field("a", field("b", field("c", Integer)));
+        assertArrayEquals(new String[]{"a", "b", "c"}, ((PathNode<?>) ((FieldNode<?>) abc).member).keys());
+        assertArrayEquals(new String[]{"a", "b", "c"}, ((PathNode<?>) ((FieldNode<?>) at(List.of("a", "b", "c"), Integer)).member).keys());
+
+        String[][] cases = {
+            {"{\"a\": { \"b\": { \"c\": 1 } } }", null},
+            {"{\"a\": { \"b\": { \"c\": \"1\" } } }", "field 'a': field 'b': field 'c': expected BigDecimal, got JString{value='1'}"},
+            {"{\"a\": { \"b\": { } } }", "field 'a': field 'b': field 'c': missing"},
+            {"{\"a\": { } }", "field 'a': field 'b': missing"},
+            {"{\"a\": { \"b\": 1 } }", "field 'a': field 'b': expected JObject, got JNumber{value=1}"},
+            {"{\"a\": 1 }", "field 'a': expected JObject, got JNumber{value=1}"},
+            {"{ }", "field 'a': missing"},
+            {"1", "expected JObject, got JNumber{value=1}"},
+            {"{\"a\": { \"b\": { \"c\": \"1\" }, \"b\": { \"c\": 2 } } }", null},
+        };
+        for (String[] c : cases) {
+            Either<String, Integer> expected = c[1] == null ? Either.right(c[0].contains("2") ? 2 : 1) : Either.left(c[1]);
+            assertEquals(c[0], expected, decodeString(c[0], abc));
+            assertEquals(c[0], expected, decodeStreaming(c[0], abc));
+        }
+
+        // a field of a mapped field isn't collapsed, but fails the same way
+        Decoder<Integer> mapped = field("a", field("b", Integer).map(i -> i + 1));
+        assertValue("{\"a\": { \"b\": 1 } }", mapped, 2);
+        assertError("{\"a\": { } }", mapped, "field 'a': field 'b': missing");
     }
 
     @Test
@@ -381,6 +687,30 @@ public class DecodersTest {
     public void testEnum() {
         assertValue("\"A\"", enumByName(X.class), X.A);
         assertError("\"C\"", enumByName(X.class), "cannot parse JString{value='C'} into a value of enum com.fredhonorio.json_decoder.DecodersTest$X");
+        assertError("1", enumByName(X.class), "expected String, got JNumber{value=1}");
+        assertTrue(enumByName(X.class) == enumByName(X.class));
+        assertEquals(Either.right(X.B), decodeStreaming("\"B\"", enumByName(X.class)));
+        assertEquals(Either.left("cannot parse JString{value='C'} into a value of enum com.fredhonorio.json_decoder.DecodersTest$X"),
+            decodeStreaming("\"C\"", enumByName(X.class)));
+    }
+
+    static enum Y { Ab, AB, Cd }
+
+    @Test
+    public void testEnumIgnoreCase() {
+        assertValue("\"AB\"", enumByNameIgnoreCase(Y.class), Y.AB);
+        assertValue("\"Ab\"", enumByNameIgnoreCase(Y.class), Y.Ab);
+        assertValue("\"ab\"", enumByNameIgnoreCase(Y.class), Y.Ab);
+        assertValue("\"CD\"", enumByNameIgnoreCase(Y.class), Y.Cd);
+        assertError("\"C\"", enumByNameIgnoreCase(Y.class), "cannot parse JString{value='C'} into a value of enum com.fredhonorio.json_decoder.DecodersTest$Y");
+    }
+
+    @Test
+    public void testEnumCustomName() {
+        Decoder<X> lowerCase = enumByName(X.class, x -> x.name().toLowerCase());
+        assertValue("\"a\"", lowerCase, X.A);
+        assertError("\"A\"", lowerCase, "cannot parse JString{value='A'} into a value of enum com.fredhonorio.json_decoder.DecodersTest$X");
+        assertTrue(Try.of(() -> enumByName(X.class, x -> "x")).isFailure());
     }
 
     @Test
@@ -485,6 +815,10 @@ public class DecodersTest {
             "expected String, got JNumber{value=1}",
             tryDecodeString("1", Decoders.String).failed().get().getMessage()
         );
+
+        Throwable failure = tryDecodeValue(Json.jNumber(1), Decoders.String).failed().get();
+        assertTrue(failure instanceof IllegalArgumentException);
+        assertEquals(0, failure.getStackTrace().length);
     }
 
     @Test
@@ -248,4 +248,10 @@ public class ReadmeTest {
         r = decodeString(json, intTreeDecoder);
         assertEquals(right(tree(1, tree(2), tree(3, tree(4)))), r);
     }
+
+    @Test
+    public void largeDocuments() {
+        Object r = decodeStreaming("{\"a\": 1, \"b\": [1, 2, 3]}", field("a", Integer));
+        assertEquals(right(1), r);
+    }
 }
@@ -1,12 +1,18 @@
 package com.fredhonorio.json_decoder;
 
 import io.vavr.collection.List;
+import io.vavr.control.Option;
+import net.hamnaberg.json.Json;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.fredhonorio.json_decoder.Decoders.String;
 import static com.fredhonorio.json_decoder.Decoders.*;
 import static net.hamnaberg.json.Json.JObject;
 import static net.hamnaberg.json.Json.*;
+import static io.vavr.control.Either.left;
+import static io.vavr.control.Either.right;
 import static org.junit.Assert.assertEquals;
 
 public class RecursiveTest {
@@ -60,4 +66,61 @@ public class RecursiveTest {
                 )))),
             decodeValue(family, personDecoder).get());
     }
+
+    @Test
+    public void testRecursiveIsBuiltOnce() {
+        AtomicInteger built = new AtomicInteger();
+        Decoder<Integer> depth = recursive(self -> {
+            built.incrementAndGet();
+            return list(self).map(l -> l.isEmpty() ? 0 : l.max().get() + 1);
+        });
+
+        assertEquals(right(3), decodeString("[[], [[[]], []]]", depth));
+        assertEquals(right(3), decodeStreaming("[[], [[[]], []]]", depth));
+        assertEquals(left("array element #1: array element #0: expected JArray, got JNumber{value=1}"), decodeString("[[], [1]]", depth));
+        assertEquals(1, built.get());
+    }
+
+    @Test
+    public void testStackSafe() {
+        AtomicInteger calls = new AtomicInteger();
+        Decoder<Integer> depth = recursive(self -> list(self).map(l -> {
+            calls.incrementAndGet();
+            return l.isEmpty() ? 0 : l.head() + 1;
+        }));
+
+        Json.JValue deep = jEmptyArray();
+        for (int i = 1; i < 512; i++)
+            deep = jArray(deep);
+        String json = deep.nospaces();
+
+        assertEquals(right(511), decodeValue(deep, stackSafe(depth)));
+        assertEquals(right(511), decodeStreaming(json, stackSafe(depth)));
+
+        // one level too deep fails before anything is decoded
+        calls.set(0);
+        assertEquals(left("too deeply nested"), decodeValue(jArray(deep), stackSafe(depth)));
+        assertEquals(left("too deeply nested"), decodeStreaming("[" + json + "]", stackSafe(depth)));
+        assertEquals(left("too deeply nested"), decodeValue(deep, stackSafe(depth, 511)));
+        assertEquals(0, calls.get());
+
+        Json.JValue deeper = deep;
+        for (int i = 0; i < 100000; i++)
+            deeper = jArray(deeper);
+        assertEquals(left("too deeply nested"), decodeValue(deeper, stackSafe(depth)));
+
+        // the rest of a value that is too deep is skipped
+        Decoder<List<Option<Integer>>> each = list(option(stackSafe(depth, 3)));
+        assertEquals(right(List.of(Option.none(), Option.some(2), Option.none())), decodeStreaming("[[[[[1]], [[]]]], [[[]]], [[[[]]]]]", each));
+        assertEquals(decodeString("[[[[[1]], [[]]]], [[[]]], [[[[]]]]]", each), decodeStreaming("[[[[[1]], [[]]]], [[[]]], [[[[]]]]]", each));
+
+        // fields that aren't decoded count too
+        Decoder<List<List<Integer>>> a = stackSafe(field("a", list(list(Integer))), 3);
+        String unread = "{\"a\":[[1]],\"b\":[[[[1]]]]}";
+        assertEquals(left("too deeply nested"), decodeString(unread, a));
+        assertEquals(left("too deeply nested"), decodeStreaming(unread, a));
+        assertEquals(right(List.of(List.of(1))), decodeStreaming("{\"a\":[[1]],\"b\":[[1]]}", a));
+        Decoder<List<Option<List<List<Integer>>>>> skipped = list(option(a));
+        assertEquals(decodeString("[" + unread + ", {\"a\":[[2]]}]", skipped), decodeStreaming("[" + unread + ", {\"a\":[[2]]}]", skipped));
+    }
 }
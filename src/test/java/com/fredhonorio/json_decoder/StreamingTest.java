@@ -0,0 +1,315 @@
+package com.fredhonorio.json_decoder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.List;
+import io.vavr.control.Either;
+import net.hamnaberg.json.Json;
+import net.hamnaberg.json.jackson.JacksonStreamingParser;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.fredhonorio.json_decoder.Decoders.Boolean;
+import static com.fredhonorio.json_decoder.Decoders.Double;
+import static com.fredhonorio.json_decoder.Decoders.Float;
+import static com.fredhonorio.json_decoder.Decoders.Integer;
+import static com.fredhonorio.json_decoder.Decoders.Long;
+import static com.fredhonorio.json_decoder.Decoders.String;
+import static com.fredhonorio.json_decoder.Decoders.*;
+import static net.hamnaberg.json.Json.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingTest {
+
+    private static <T> void assertSameAsTree(String json, Decoder<T> decoder) {
+        assertEquals(decodeString(json, decoder), decodeStreaming(json, decoder));
+    }
+
+    @Test
+    public void testSameResults() {
+        String person = "{\"name\": \"jack\", \"age\": 18, \"tags\": [\"a\", \"b\"], \"extra\": {\"x\": [1, 2, 3]}}";
+
+        assertSameAsTree("1", Integer);
+        assertSameAsTree("\"1\"", Integer);
+        assertSameAsTree("2147483648", Integer);
+        assertSameAsTree("-2147483648", Integer);
+        assertSameAsTree("1.0", Integer);
+        assertSameAsTree("1.5", Integer);
+        assertSameAsTree("9223372036854775807", Long);
+        assertSameAsTree("9223372036854775808", Long);
+        assertSameAsTree("1e3", Long);
+        assertSameAsTree("0.1", Float);
+        assertSameAsTree("16777217", Float);
+        assertSameAsTree("0.1", Double);
+        assertSameAsTree("123456789012345678901234567890", Double);
+        assertSameAsTree("true", Boolean);
+        assertSameAsTree("null", nullValue(1));
+        assertSameAsTree("[1]", String);
+
+        assertSameAsTree(person, field("name", String));
+        assertSameAsTree(person, field("age", String));
+        assertSameAsTree(person, field("missing", String));
+        assertSameAsTree(person, optionalField("missing", String));
+        assertSameAsTree(person, optionalField("age", String));
+        assertSameAsTree(person, at(List.of("extra", "x"), list(Integer)));
+        assertSameAsTree(person, at(List.of("extra", "x"), index(2, Integer)));
+        assertSameAsTree(person, at(List.of("extra", "x"), index(3, Integer)));
+        assertSameAsTree(person, field("tags", list(Integer)));
+        assertSameAsTree(person, field("tags", dict(String)));
+        assertSameAsTree("{\"a\": 1, \"b\": \"2\"}", dict(Integer));
+        assertSameAsTree("{\"a\": 1, \"b\": 2}", dict(Integer));
+        assertSameAsTree(person, Decoder.map3(
+            field("name", String),
+            field("age", Integer),
+            field("tags", list(String)),
+            Tuple::of));
+        assertSameAsTree(person, Decoder.map2(
+            field("name", String),
+            field("tags", index(0, nullable(Integer))),
+            Tuple::of));
+        assertSameAsTree(person, Decoder.map4(
+            field("age", Integer),
+            field("tags", index(1, String)),
+            field("tags", index(0, String)),
+            optionalField("missing", Integer),
+            Tuple::of));
+        assertSameAsTree(person, Decoder.map2(
+            field("tags", list(String)),
+            field("name", Integer).mapError(err -> "bad name, " + err),
+            Tuple::of));
+        assertSameAsTree(person, Decoder.map2(
+            field("name", String),
+            field("missing", Integer),
+            Tuple::of));
+        assertSameAsTree("[1]", Decoder.map2(
+            field("name", String),
+            field("missing", Integer),
+            Tuple::of));
+        assertSameAsTree(person, field("age", oneOf(String, Integer.map(Object::toString))));
+        // a String decoder reports objects in full, whatever the field decoder reads of them
+        assertSameAsTree("[{\"a\": 1, \"z\": [1, 2]}]", list(oneOf(field("a", String), String)));
+        assertSameAsTree("[[1, 2]]", list(oneOf(index(0, String), String)));
+        assertSameAsTree(person, field("name", String).andThen(name -> field("age", Integer)));
+    }
+
+    @Test
+    public void testPrimitiveArrays() {
+        String longArray = List.range(0, 100).mkString("[", ", ", "]");
+
+        assertEquals(List.range(0, 100), List.ofAll(decodeStreaming(longArray, intArray()).get()));
+        assertEquals(List.range(0, 100).map(i -> (long) i), List.ofAll(decodeStreaming(longArray, longArray()).get()));
+        assertEquals(List.of(0.1D, 1D, 2.5D), List.ofAll(decodeStreaming("[0.1, 1, 2.5]", doubleArray()).get()));
+        assertEquals(List.of(0.1F, 1F, 2.5F), List.ofAll(decodeStreaming("[0.1, 1, 2.5]", floatArray()).get()));
+
+        assertEquals(decodeString("[1, 2147483648]", intArray()).getLeft(), decodeStreaming("[1, 2147483648]", intArray()).getLeft());
+        assertEquals(decodeString("[1, 1.0, \"1\"]", longArray()).getLeft(), decodeStreaming("[1, 1.0, \"1\"]", longArray()).getLeft());
+        assertEquals(decodeString("[1, [2]]", doubleArray()).getLeft(), decodeStreaming("[1, [2]]", doubleArray()).getLeft());
+        assertEquals(decodeString("{\"a\": 1}", floatArray()).getLeft(), decodeStreaming("{\"a\": 1}", floatArray()).getLeft());
+    }
+
+    @Test
+    public void testMaterializeOnlyWhatIsRead() throws Exception {
+        String json = "{\"a\": 1, \"b\": [1, 2, 3], \"c\": [5, 6, 7], \"d\": {\"e\": 1}}";
+
+        Decoder<?> decoder = Decoder.map3(
+            field("a", Integer),
+            field("c", index(1, Integer)),
+            field("d", succeed(0)),
+            Tuple::of);
+
+        try (JsonParser parser = Streaming.FACTORY.createParser(json)) {
+            parser.nextToken();
+            assertEquals(
+                jObject(
+                    tuple("a", jNumber(1)),
+                    tuple("c", jArray(jNull(), jNumber(6), jNull())),
+                    tuple("d", jNull())),
+                Streaming.materialize(parser, Shape.of(decoder)));
+        }
+    }
+
+    @Test
+    public void testDecodeParser() throws Exception {
+        String json = "[{\"a\": 1, \"b\": true}, {\"a\": 2}]";
+        Decoder<Integer> decoder = field("a", Integer);
+
+        try (JsonParser parser = Streaming.FACTORY.createParser(json)) {
+            assertEquals(JsonToken.START_ARRAY, parser.nextToken());
+            parser.nextToken();
+            assertEquals(1, (int) decodeParser(parser, decoder).get());
+            assertEquals(JsonToken.END_OBJECT, parser.getCurrentToken());
+            parser.nextToken();
+            assertEquals(2, (int) decodeParser(parser, decoder).get());
+            assertEquals(JsonToken.END_ARRAY, parser.nextToken());
+        }
+
+        assertTrue(decodeStreaming("", Integer).isLeft());
+        assertTrue(decodeStreaming("[1, 2", list(Integer)).isLeft());
+    }
+
+    @Test
+    public void testInputs() throws Exception {
+        String json = "{\"name\": \"j\u00f6rg \u2713\", \"age\": 18}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        Decoder<Tuple2<String, Integer>> decoder = Decoder.map2(field("name", String), field("age", Integer), Tuple::of);
+        Either<String, Tuple2<String, Integer>> expected = decodeString(json, decoder);
+
+        assertEquals(expected, decodeBytes(bytes, decoder));
+        assertEquals(expected, decodeReader(new StringReader(json), decoder));
+
+        ByteArrayInputStream stream = new ByteArrayInputStream(bytes);
+        assertEquals(expected, decodeStream(stream, decoder));
+
+        ByteBuffer heap = ByteBuffer.allocate(bytes.length + 4);
+        heap.put(new byte[]{'[', '1', ']', ' '}).put(bytes).flip();
+        heap.position(4);
+        assertEquals(expected, decodeByteBuffer(heap.slice(), decoder));
+        assertEquals(4, heap.position());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(expected, decodeByteBuffer(direct, decoder));
+        assertEquals(0, direct.position());
+
+        assertTrue(decodeBytes("{".getBytes(StandardCharsets.UTF_8), decoder).isLeft());
+    }
+
+    @Test
+    public void testDecodeStringErrors() {
+        // the same messages as the JacksonStreamingParser that decodeString used to create
+        for (String json : List.of("", "  ", "{", "[1,", "[1 2]", "tru", "{\"a\":}", "\"a", "01", "{\"a\": 1, \"a\": 2}")) {
+            Either<String, Json.JValue> expected = new JacksonStreamingParser().parse(json).toEither().mapLeft(Throwable::getMessage);
+            assertEquals(expected, decodeString(json, Value));
+            assertEquals(expected, tryDecodeString(json, Value).toEither().mapLeft(Throwable::getMessage));
+        }
+        assertEquals(Either.left("Nothing parsed"), decodeString("", Value));
+    }
+
+    @Test
+    public void testDecodeAll() {
+        Decoder<Integer> decoder = field("a", Integer);
+        List<String> docs = List.range(0, 200)
+            .map(i -> i % 50 == 7 ? "{\"a\": \"" + i + "\"}" : "{\"a\": " + i + "}")
+            .append("{")
+            .append("{\"a\": 1, \"b\": \"" + List.range(0, 3000).map(i -> "x").mkString() + "\"}");
+        List<Either<String, Integer>> expected = docs.map(d -> decodeStreaming(d, decoder));
+        List<byte[]> bytes = docs.map(d -> d.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(expected, decodeAll(docs, decoder));
+        assertEquals(expected, parDecodeAll(docs, decoder));
+        assertEquals(expected, decodeAllBytes(bytes, decoder));
+        assertEquals(expected, parDecodeAllBytes(bytes, decoder));
+
+        assertEquals(Either.left("field 'a': expected BigDecimal, got JString{value='7'}"), expected.get(7));
+        assertEquals(Either.right(8), expected.get(8));
+        assertTrue(expected.get(200).isLeft());
+        assertEquals(Either.right(1), expected.get(201));
+        assertEquals(List.empty(), decodeAll(List.empty(), decoder));
+
+        // errors must not show other documents
+        List<String> secret = List.of("{\"a\": 1, \"secret\": \"hunter2-hunter2\"}", "{");
+        String error = decodeAll(secret, decoder).get(1).getLeft();
+        assertFalse(error.contains("secret"));
+        assertEquals(decodeStreaming("{", decoder), Either.left(error));
+        assertEquals(decodeBytes("{".getBytes(StandardCharsets.UTF_8), decoder), Either.left(error));
+    }
+
+    @Test
+    public void testDecodeLines() {
+        String lines = "{\"a\": 1}\n{\"a\": 2}\r\n\n  \n{\"a\": \"3\"}\n{\"a\": \n{\"a\": 5} 6\n{\"a\": 7}";
+        InputStream input = new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8));
+
+        java.util.List<Either<String, Integer>> results = decodeLines(input, field("a", Integer)).collect(Collectors.toList());
+
+        assertEquals(6, results.size());
+        assertEquals(Either.right(1), results.get(0));
+        assertEquals(Either.right(2), results.get(1));
+        assertEquals("line 5: field 'a': expected BigDecimal, got JString{value='3'}", results.get(2).getLeft());
+        assertTrue(results.get(3).getLeft().startsWith("line 6: "));
+        assertEquals("line 7: unexpected content after the value", results.get(4).getLeft());
+        assertEquals(Either.right(7), results.get(5));
+    }
+
+    @Test
+    public void testDecodeLinesIsLazy() {
+        // long lines, so that the buffer has to grow and be compacted
+        String line = List.range(0, 5000).mkString("[", ",", "]");
+        AtomicInteger read = new AtomicInteger(0);
+        InputStream input = new ByteArrayInputStream(List.fill(100, () -> line).mkString("\n").getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                read.incrementAndGet();
+                return super.read(b, off, len);
+            }
+        };
+
+        assertEquals(
+            List.fill(3, () -> 4999),
+            List.ofAll(decodeLines(input, list(Integer).map(List::last)).limit(3).map(Either::get).collect(Collectors.toList())));
+        assertTrue(read.get() < 20);
+    }
+
+    @Test
+    public void testStreamArray() {
+        InputStream input = new ByteArrayInputStream("[{\"a\": 1}, {\"a\": \"2\"}, {\"b\": 3, \"a\": 3}]".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(
+            List.of(
+                Either.right(1),
+                Either.left("array element #1: field 'a': expected BigDecimal, got JString{value='2'}"),
+                Either.right(3)),
+            List.ofAll(streamArray(input, field("a", Integer)).collect(Collectors.toList())));
+
+        assertEquals(
+            List.of(Either.left("expected JArray, got JNumber{value=1}")),
+            List.ofAll(streamArray(new ByteArrayInputStream("1".getBytes(StandardCharsets.UTF_8)), Integer).collect(Collectors.toList())));
+
+        java.util.List<Either<String, Integer>> truncated = streamArray(new ByteArrayInputStream("[1, 2, {".getBytes(StandardCharsets.UTF_8)), Integer)
+            .collect(Collectors.toList());
+        assertEquals(3, truncated.size());
+        assertTrue(truncated.get(2).isLeft());
+    }
+
+    @Test
+    public void testStreamArrayIsLazy() {
+        String element = List.range(0, 1000).mkString("[", ",", "]");
+        AtomicInteger read = new AtomicInteger(0);
+        InputStream input = new ByteArrayInputStream(List.fill(1000, () -> element).mkString("[", ",", "]").getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                read.incrementAndGet();
+                return super.read(b, off, len);
+            }
+        };
+
+        assertEquals(
+            List.of(1000, 1000),
+            List.ofAll(streamArray(input, intArray()).limit(2).map(e -> e.get().length).collect(Collectors.toList())));
+        assertTrue(read.get() < 10);
+    }
+
+    @Test
+    public void testListStopsAtFailure() {
+        AtomicInteger count = new AtomicInteger(0);
+        Decoder<Integer> countIntDecoder = Integer.map(i -> {
+            count.incrementAndGet();
+            return i;
+        });
+
+        assertEquals(
+            "array element #2: expected BigDecimal, got JString{value='false'}",
+            decodeStreaming("[1, 2, \"false\", 3, 4, 5]", list(countIntDecoder)).getLeft());
+        assertEquals(2, count.get());
+    }
+}
@@ -12,5 +12,6 @@ public class UtilityClasses {
         // https://trajano.net/2013/04/covering-utility-classes/
         UtilityClassTestUtil.assertUtilityClassWellDefined(Decoders.class);
         UtilityClassTestUtil.assertUtilityClassWellDefined(EitherExtra.class);
+        UtilityClassTestUtil.assertUtilityClassWellDefined(Functions.class);
     }
 }